@@ -0,0 +1,117 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dataStructures.ArrayList;
+
+/**
+ * dataStructures.ArrayList against java.util.ArrayList
+ *
+ * fill appends size items to an empty list. indexOf searches a full list for
+ * a random item, and removeAdd takes the item at a random index out and puts
+ * it straight back, so both pay for the linear part of the list.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class ArrayListBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	int size;
+
+	Integer[] items;
+
+	int[] probes;
+
+	int probe;
+
+	ArrayList list;
+
+	java.util.ArrayList<Integer> jdkList;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		items = Keys.shuffled(size);
+		probes = Keys.probes(size);
+
+		list = new ArrayList();
+		jdkList = new java.util.ArrayList<>();
+		for (Integer item : items)
+		{
+			list.add(item);
+			jdkList.add(item);
+		}
+	}
+
+	private int nextIndex()
+	{
+		return probes[probe++ & (Keys.PROBES - 1)];
+	}
+
+	@Benchmark
+	public ArrayList fill()
+	{
+		ArrayList fresh = new ArrayList();
+		for (Integer item : items)
+			fresh.add(item);
+		return fresh;
+	}
+
+	@Benchmark
+	public java.util.ArrayList<Integer> jdkFill()
+	{
+		java.util.ArrayList<Integer> fresh = new java.util.ArrayList<>();
+		for (Integer item : items)
+			fresh.add(item);
+		return fresh;
+	}
+
+	@Benchmark
+	public int indexOf()
+	{
+		return list.indexOf(items[nextIndex()]);
+	}
+
+	@Benchmark
+	public int jdkIndexOf()
+	{
+		return jdkList.indexOf(items[nextIndex()]);
+	}
+
+	@Benchmark
+	public boolean removeAdd()
+	{
+		int index = nextIndex();
+		Object item = list.get(index);
+		list.remove(index);
+		return list.add(index, item);
+	}
+
+	@Benchmark
+	public boolean jdkRemoveAdd()
+	{
+		int index = nextIndex();
+		Integer item = jdkList.remove(index);
+		jdkList.add(index, item);
+		return true;
+	}
+}
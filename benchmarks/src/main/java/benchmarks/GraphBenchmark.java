@@ -0,0 +1,203 @@
+package benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dataStructures.ListGraph;
+import dataStructures.ShortestPath;
+
+/**
+ * ListGraph shortest paths against the same searches written on java.util
+ *
+ * the graph is a square grid of about size vertices, each joined to its four
+ * neighbours by edges costing 1 to 9, the same shape as the colony. bfs is
+ * unweightedShortestPath and dijkstra is weightedShortestPath, both from one
+ * corner to the opposite one so every vertex is visited. the java.util
+ * version keeps adjacency lists in a java.util.HashMap and runs the searches
+ * with an ArrayDeque and a java.util.PriorityQueue.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class GraphBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	int size;
+
+	Integer[] vertices;
+
+	Integer origin;
+
+	Integer destination;
+
+	ListGraph graph;
+
+	java.util.HashMap<Integer, java.util.ArrayList<Edge>> jdkGraph;
+
+	/**
+	 * one edge of the java.util graph
+	 */
+	static final class Edge {
+
+		final Integer destination;
+
+		final double cost;
+
+		Edge (Integer destination, double cost)
+		{
+			this.destination = destination;
+			this.cost = cost;
+		}
+	}
+
+	/**
+	 * a vertex reached by the java.util dijkstra, ordered by distance
+	 */
+	static final class Path implements Comparable<Path> {
+
+		final Integer vertex;
+
+		final double distance;
+
+		Path (Integer vertex, double distance)
+		{
+			this.vertex = vertex;
+			this.distance = distance;
+		}
+
+		@Override
+		public int compareTo(Path other)
+		{
+			return Double.compare(distance, other.distance);
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		int side = (int) Math.ceil(Math.sqrt(size));
+		vertices = new Integer[side * side];
+		for (int i = 0; i < vertices.length; i++)
+			vertices[i] = i;
+		origin = vertices[0];
+		destination = vertices[vertices.length - 1];
+
+		graph = new ListGraph();
+		jdkGraph = new java.util.HashMap<>();
+		for (Integer vertex : vertices)
+		{
+			graph.add(vertex);
+			jdkGraph.put(vertex, new java.util.ArrayList<>(4));
+		}
+
+		SplittableRandom rand = new SplittableRandom(Keys.SEED);
+		for (int y = 0; y < side; y++)
+			for (int x = 0; x < side; x++)
+			{
+				Integer here = vertices[y * side + x];
+				if (x + 1 < side)
+					join(here, vertices[y * side + x + 1], 1 + rand.nextInt(9));
+				if (y + 1 < side)
+					join(here, vertices[(y + 1) * side + x], 1 + rand.nextInt(9));
+			}
+	}
+
+	private void join(Integer a, Integer b, double cost)
+	{
+		graph.addBidirectionalEdge(a, b, cost);
+		jdkGraph.get(a).add(new Edge(b, cost));
+		jdkGraph.get(b).add(new Edge(a, cost));
+	}
+
+	@Benchmark
+	public ShortestPath bfs()
+	{
+		return graph.unweightedShortestPath(origin, destination);
+	}
+
+	@Benchmark
+	public ShortestPath dijkstra()
+	{
+		return graph.weightedShortestPath(origin, destination);
+	}
+
+	@Benchmark
+	public java.util.List<Integer> jdkBfs()
+	{
+		java.util.HashMap<Integer, Integer> previous = new java.util.HashMap<>();
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		previous.put(origin, origin);
+		queue.add(origin);
+
+		while (!queue.isEmpty())
+		{
+			Integer vertex = queue.poll();
+			for (Edge edge : jdkGraph.get(vertex))
+				if (!previous.containsKey(edge.destination))
+				{
+					previous.put(edge.destination, vertex);
+					queue.add(edge.destination);
+				}
+		}
+		return path(previous);
+	}
+
+	@Benchmark
+	public java.util.List<Integer> jdkDijkstra()
+	{
+		java.util.HashMap<Integer, Integer> previous = new java.util.HashMap<>();
+		java.util.HashMap<Integer, Double> distance = new java.util.HashMap<>();
+		java.util.PriorityQueue<Path> queue = new java.util.PriorityQueue<>();
+		previous.put(origin, origin);
+		distance.put(origin, 0.0);
+		queue.add(new Path(origin, 0));
+
+		while (!queue.isEmpty())
+		{
+			Path path = queue.poll();
+			if (path.distance > distance.get(path.vertex))
+				continue;
+
+			for (Edge edge : jdkGraph.get(path.vertex))
+			{
+				double through = path.distance + edge.cost;
+				Double known = distance.get(edge.destination);
+				if (known == null || through < known)
+				{
+					distance.put(edge.destination, through);
+					previous.put(edge.destination, path.vertex);
+					queue.add(new Path(edge.destination, through));
+				}
+			}
+		}
+		return path(previous);
+	}
+
+	private java.util.List<Integer> path(java.util.HashMap<Integer, Integer> previous)
+	{
+		java.util.LinkedList<Integer> path = new java.util.LinkedList<>();
+		for (Integer vertex = destination; !vertex.equals(origin); vertex = previous.get(vertex))
+			path.addFirst(vertex);
+		path.addFirst(origin);
+		return path;
+	}
+}
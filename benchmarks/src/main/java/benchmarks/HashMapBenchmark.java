@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dataStructures.HashMap;
+
+/**
+ * dataStructures.HashMap against java.util.HashMap
+ *
+ * fill builds a map of size keys from empty, so it pays for every rehash on
+ * the way up. get, and removeAdd, work on a full map and take one key per
+ * call from a fixed list of random probes.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class HashMapBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	int size;
+
+	Integer[] keys;
+
+	int[] probes;
+
+	int probe;
+
+	HashMap map;
+
+	java.util.HashMap<Integer, Integer> jdkMap;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		keys = Keys.shuffled(size);
+		probes = Keys.probes(size);
+
+		map = new HashMap();
+		jdkMap = new java.util.HashMap<>();
+		for (Integer key : keys)
+		{
+			map.add(key, key);
+			jdkMap.put(key, key);
+		}
+	}
+
+	private Integer nextKey()
+	{
+		return keys[probes[probe++ & (Keys.PROBES - 1)]];
+	}
+
+	@Benchmark
+	public HashMap fill()
+	{
+		HashMap fresh = new HashMap();
+		for (Integer key : keys)
+			fresh.add(key, key);
+		return fresh;
+	}
+
+	@Benchmark
+	public java.util.HashMap<Integer, Integer> jdkFill()
+	{
+		java.util.HashMap<Integer, Integer> fresh = new java.util.HashMap<>();
+		for (Integer key : keys)
+			fresh.put(key, key);
+		return fresh;
+	}
+
+	@Benchmark
+	public Object get()
+	{
+		return map.get(nextKey());
+	}
+
+	@Benchmark
+	public Object jdkGet()
+	{
+		return jdkMap.get(nextKey());
+	}
+
+	@Benchmark
+	public boolean removeAdd()
+	{
+		Integer key = nextKey();
+		map.remove(key);
+		return map.add(key, key);
+	}
+
+	@Benchmark
+	public Object jdkRemoveAdd()
+	{
+		Integer key = nextKey();
+		jdkMap.remove(key);
+		return jdkMap.put(key, key);
+	}
+}
@@ -0,0 +1,131 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dataStructures.BinaryMinHeap;
+import dataStructures.PriorityQueue;
+
+/**
+ * dataStructures.BinaryMinHeap and PriorityQueue against java.util.PriorityQueue
+ *
+ * fillDrain adds size shuffled items and then removes them all, smallest
+ * first. replaceMin removes the smallest item of a full heap and adds it
+ * back, the steady state of a queue that stays the same size.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class HeapBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	int size;
+
+	Integer[] items;
+
+	BinaryMinHeap heap;
+
+	PriorityQueue queue;
+
+	java.util.PriorityQueue<Integer> jdkQueue;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		items = Keys.shuffled(size);
+
+		heap = new BinaryMinHeap();
+		queue = new PriorityQueue(PriorityQueue.PRIORITY_ASCENDING);
+		jdkQueue = new java.util.PriorityQueue<>();
+		for (Integer item : items)
+		{
+			heap.add(item);
+			queue.add(item);
+			jdkQueue.add(item);
+		}
+	}
+
+	@Benchmark
+	public long heapFillDrain()
+	{
+		BinaryMinHeap fresh = new BinaryMinHeap();
+		for (Integer item : items)
+			fresh.add(item);
+
+		long sum = 0;
+		while (!fresh.isEmpty())
+		{
+			sum += (Integer) fresh.get();
+			fresh.remove();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long queueFillDrain()
+	{
+		PriorityQueue fresh = new PriorityQueue(PriorityQueue.PRIORITY_ASCENDING);
+		for (Integer item : items)
+			fresh.add(item);
+
+		long sum = 0;
+		while (!fresh.isEmpty())
+		{
+			sum += (Integer) fresh.get();
+			fresh.remove();
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long jdkFillDrain()
+	{
+		java.util.PriorityQueue<Integer> fresh = new java.util.PriorityQueue<>();
+		for (Integer item : items)
+			fresh.add(item);
+
+		long sum = 0;
+		while (!fresh.isEmpty())
+			sum += fresh.poll();
+		return sum;
+	}
+
+	@Benchmark
+	public boolean heapReplaceMin()
+	{
+		Comparable min = heap.get();
+		heap.remove();
+		return heap.add(min);
+	}
+
+	@Benchmark
+	public boolean queueReplaceMin()
+	{
+		Comparable min = queue.get();
+		queue.remove();
+		return queue.add(min);
+	}
+
+	@Benchmark
+	public boolean jdkReplaceMin()
+	{
+		return jdkQueue.add(jdkQueue.poll());
+	}
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * fixed inputs shared by the benchmarks
+ *
+ * keys are boxed once during setup so the measured code never pays for
+ * Integer.valueOf, and every run uses the same seed so results can be
+ * compared between commits.
+ * @author SChmielowski
+ *
+ */
+final class Keys {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final long SEED = 0x5EED_A27L;
+
+	// probes cycled through by the lookup benchmarks, a power of two
+	static final int PROBES = 4096;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	private Keys ()
+	{
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to make the keys 0 .. size - 1 in a shuffled order
+	 * @param size int number of keys
+	 * @return Integer[] the shuffled keys
+	 */
+	static Integer[] shuffled(int size)
+	{
+		Integer[] keys = new Integer[size];
+		for (int i = 0; i < size; i++)
+			keys[i] = i;
+
+		SplittableRandom rand = new SplittableRandom(SEED);
+		for (int i = size - 1; i > 0; i--)
+		{
+			int j = rand.nextInt(i + 1);
+			Integer swap = keys[i];
+			keys[i] = keys[j];
+			keys[j] = swap;
+		}
+		return keys;
+	} // end shuffled()
+
+	/**
+	 * method to pick PROBES random indexes below size
+	 * @param size int exclusive upper bound
+	 * @return int[] the indexes
+	 */
+	static int[] probes(int size)
+	{
+		SplittableRandom rand = new SplittableRandom(SEED + 1);
+		int[] probes = new int[PROBES];
+		for (int i = 0; i < PROBES; i++)
+			probes[i] = rand.nextInt(size);
+		return probes;
+	} // end probes()
+}
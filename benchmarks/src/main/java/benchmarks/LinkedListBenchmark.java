@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dataStructures.LinkedList;
+
+/**
+ * indexed access into dataStructures.LinkedList against java.util.LinkedList
+ *
+ * each call reads the item at a random index, so it measures how far the
+ * list walks its nodes to get there.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class LinkedListBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	int size;
+
+	int[] probes;
+
+	int probe;
+
+	LinkedList list;
+
+	java.util.LinkedList<Integer> jdkList;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		Integer[] items = Keys.shuffled(size);
+		probes = Keys.probes(size);
+
+		list = new LinkedList();
+		jdkList = new java.util.LinkedList<>();
+		for (Integer item : items)
+		{
+			list.add(item);
+			jdkList.add(item);
+		}
+	}
+
+	private int nextIndex()
+	{
+		return probes[probe++ & (Keys.PROBES - 1)];
+	}
+
+	@Benchmark
+	public Object get()
+	{
+		return list.get(nextIndex());
+	}
+
+	@Benchmark
+	public Object jdkGet()
+	{
+		return jdkList.get(nextIndex());
+	}
+}
@@ -0,0 +1,140 @@
+package benchmarks;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dataStructures.AVLTree;
+import dataStructures.BinarySearchTree;
+import dataStructures.GenericBinarySearchTree;
+import dataStructures.OrderedIterator;
+import dataStructures.RedBlackTree;
+
+/**
+ * the three dataStructures search trees against java.util.TreeSet
+ *
+ * insert builds a tree of size keys added in shuffled order, lookup finds a
+ * random key in a full tree and iterate walks a full tree in order. keys go
+ * in shuffled, so GenericBinarySearchTree stays close to balanced too.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Thread)
+public class SearchTreeBenchmark {
+
+	@Param({"10", "1000", "100000", "10000000"})
+	int size;
+
+	@Param({"AVLTree", "RedBlackTree", "GenericBinarySearchTree"})
+	String tree;
+
+	Integer[] keys;
+
+	int[] probes;
+
+	int probe;
+
+	BinarySearchTree full;
+
+	TreeSet<Integer> jdkFull;
+
+	@Setup(Level.Trial)
+	public void setUp()
+	{
+		keys = Keys.shuffled(size);
+		probes = Keys.probes(size);
+
+		full = newTree();
+		jdkFull = new TreeSet<>();
+		for (Integer key : keys)
+		{
+			full.add(key);
+			jdkFull.add(key);
+		}
+	}
+
+	private BinarySearchTree newTree()
+	{
+		switch (tree)
+		{
+		case "AVLTree":
+			return new AVLTree();
+		case "RedBlackTree":
+			return new RedBlackTree();
+		case "GenericBinarySearchTree":
+			return new GenericBinarySearchTree();
+		default:
+			throw new IllegalArgumentException("unknown tree " + tree);
+		}
+	}
+
+	private Integer nextKey()
+	{
+		return keys[probes[probe++ & (Keys.PROBES - 1)]];
+	}
+
+	@Benchmark
+	public BinarySearchTree insert()
+	{
+		BinarySearchTree fresh = newTree();
+		for (Integer key : keys)
+			fresh.add(key);
+		return fresh;
+	}
+
+	@Benchmark
+	public TreeSet<Integer> jdkInsert()
+	{
+		TreeSet<Integer> fresh = new TreeSet<>();
+		for (Integer key : keys)
+			fresh.add(key);
+		return fresh;
+	}
+
+	@Benchmark
+	public Object lookup()
+	{
+		return full.get(nextKey());
+	}
+
+	@Benchmark
+	public boolean jdkLookup()
+	{
+		return jdkFull.contains(nextKey());
+	}
+
+	@Benchmark
+	public long iterate()
+	{
+		long sum = 0;
+		for (OrderedIterator itr = full.iterator(); itr.hasNext(); itr.next())
+			sum += (Integer) itr.getCurrent();
+		return sum;
+	}
+
+	@Benchmark
+	public long jdkIterate()
+	{
+		long sum = 0;
+		for (Integer key : jdkFull)
+			sum += key;
+		return sum;
+	}
+}
@@ -0,0 +1,109 @@
+package semesterProject;
+
+/**
+ * standard colonies the turn benchmarks start from
+ *
+ * every scenario is built from a fixed seed, so the same scenario is the same
+ * colony on every machine and every commit. the queen is given enough food
+ * that none of them can starve during a benchmark.
+ * @author SChmielowski
+ *
+ */
+public enum Scenario {
+
+	/**
+	 * the normal start, 27 x 27 with a queen, 10 soldiers, 50 foragers and 4 scouts
+	 */
+	DEFAULT(SimulationConfig.DEFAULT_SIZE, 0, 0, 0, 0),
+
+	/**
+	 * a fully explored 81 x 81 colony of 5000 ants that has had time to lay trails
+	 */
+	MATURE(81, 2500, 1250, 1250, 0),
+
+	/**
+	 * a fully explored 81 x 81 colony under attack by 2000 bala, defended by 2000 soldiers
+	 */
+	BALA_SWARM(81, 500, 0, 2000, 2000),
+
+	/**
+	 * the normal start on a 2048 x 2048 grid with 2000 extra scouts pushing out into it
+	 */
+	LARGE_GRID(2048, 0, 2000, 0, 0);
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final long SEED = 20200417L;
+
+	// turns run before a scenario is used, so trails and fights are under way
+	static final int SETTLE_TURNS = 200;
+
+	static final int QUEEN_FOOD = 1000000;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	final int size;
+
+	final int foragers;
+
+	final int scouts;
+
+	final int soldiers;
+
+	final int bala;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	Scenario (int size, int foragers, int scouts, int soldiers, int bala)
+	{
+		this.size = size;
+		this.foragers = foragers;
+		this.scouts = scouts;
+		this.soldiers = soldiers;
+		this.bala = bala;
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to build this scenario and run it up to the point benchmarks start from
+	 * @return Simulation headless and ready for its next turn
+	 */
+	Simulation build()
+	{
+		Simulation sim = new Simulation(true, new XoroshiroRandom(SEED), new SimulationConfig(size, size));
+		Colony colony = sim.colony;
+		ColonyGrid grid = colony.grid;
+		grid.addFood(colony.queenCell, QUEEN_FOOD);
+		if (this == DEFAULT)
+			return sim;
+
+		// the small scenarios are explored the way scouts would have done it
+		if (size < LARGE_GRID.size)
+			for (int cell = 0; cell < grid.cellCount; cell++)
+				if (grid.hidden[cell])
+					grid.openNode(cell, colony.rand);
+
+		for (int i = 0; i < foragers; i++)
+			colony.addAnt(new Forager(colony));
+		for (int i = 0; i < scouts; i++)
+			colony.addAnt(new Scout(colony));
+		for (int i = 0; i < soldiers; i++)
+			colony.addAnt(new Soldier(colony));
+		for (int i = 0; i < bala; i++)
+			colony.addAnt(new Bala(colony));
+
+		sim.runTurns(SETTLE_TURNS);
+		if (!sim.isQueenAlive())
+			throw new IllegalStateException("queen died while settling " + this);
+		return sim;
+	} // end build()
+}
@@ -0,0 +1,131 @@
+package semesterProject;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * end to end turn throughput of the headless engine
+ *
+ * each scenario is built once and saved as a checkpoint. every invocation
+ * restores that checkpoint, outside the timed region, and runs TURNS turns
+ * through Simulation.takeTurn, so every invocation replays exactly the same
+ * turns and results from different commits are comparable.
+ *
+ * the restore goes into the same simulation each time so the grid arrays are
+ * reused. the gc profiler still counts the ants it recreates, which comes to
+ * a few hundred bytes per turn on the larger scenarios.
+ *
+ * the score is nanoseconds per turn, the antTurns line is nanoseconds per
+ * ant turn and gc.alloc.rate.norm is bytes allocated per turn. run with
+ * -bm thrpt -tu s to get turns per second instead. -p threads=1,8,64 runs
+ * the ants on a ParallelTurnEngine with that many workers.
+ * @author SChmielowski
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class TurnBenchmark {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final int TURNS = 1000;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	@Param({"DEFAULT", "MATURE", "BALA_SWARM", "LARGE_GRID"})
+	Scenario scenario;
+
+	@Param({"0"})
+	int threads; // 0 for the sequential scheduler
+
+	Path checkpoint;
+
+	Simulation sim;
+
+	/**
+	 * ant turns taken, reported per ant turn rather than per turn
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class AntTurns {
+
+		public long antTurns;
+
+		@Setup(Level.Iteration)
+		public void clear()
+		{
+			antTurns = 0;
+		}
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	@Setup(Level.Trial)
+	public void build() throws IOException
+	{
+		checkpoint = Files.createTempFile("turn-benchmark-" + scenario, ".ants");
+		Simulation built = scenario.build();
+		Checkpoint.save(built, checkpoint);
+
+		// a scenario whose queen dies part way would time fewer turns than it claims
+		sim = new Simulation(true, Checkpoint.load(checkpoint));
+		sim.setParallelism(threads, ParallelTurnEngine.DEFAULT_TILE_SIZE);
+		sim.runTurns(TURNS);
+		if (!sim.isQueenAlive())
+			throw new IllegalStateException("queen does not survive " + TURNS + " turns of " + scenario);
+	}
+
+	@Setup(Level.Invocation)
+	public void restore() throws IOException
+	{
+		sim.colony.resetColony();
+		Checkpoint.load(checkpoint).restore(sim);
+	}
+
+	@TearDown(Level.Trial)
+	public void delete() throws IOException
+	{
+		sim.setParallelism(0, ParallelTurnEngine.DEFAULT_TILE_SIZE);
+		Files.deleteIfExists(checkpoint);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TURNS)
+	public Simulation turns(AntTurns counters)
+	{
+		for (int i = 0; i < TURNS; i++)
+		{
+			counters.antTurns += sim.colony.ants.size();
+			sim.takeTurn();
+		}
+		return sim;
+	}
+}
@@ -11,6 +11,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 
 import javax.swing.JButton;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -103,11 +104,12 @@ public class AntSimGUI extends JFrame
 	 *	initialize this GUI
 	 *
 	 *	a control panel and scrollable pane for displaying the specified
-	 *	ColonyView will be created and added to this GUI
+	 *	colony view (a ColonyView or ColonyCanvas) will be created and added
+	 *	to this GUI
 	 *
-	 *	@param	colonyView		the ColonyView to be displayed
+	 *	@param	colonyView		the view of the colony to be displayed
 	 */
-	public void initGUI(ColonyView colonyView)
+	public void initGUI(JComponent colonyView)
 	{
 		// create button control panel
 		controlPanel = new ControlPanel();
@@ -115,6 +117,8 @@ public class AntSimGUI extends JFrame
 		// set up colony view with default dimensions
 		colonyPane = new JScrollPane(colonyView);
 		colonyPane.setPreferredSize(new Dimension(800, 600));
+		colonyPane.getHorizontalScrollBar().setUnitIncrement(16);
+		colonyPane.getVerticalScrollBar().setUnitIncrement(16);
 		
 		// add control panel and colony view
 		getContentPane().add(controlPanel, BorderLayout.NORTH);
@@ -233,6 +237,9 @@ public class AntSimGUI extends JFrame
 		// button for running the simulation one turn at a time
 		private JButton stepButton;
 		
+		// button for saving the simulation to a file
+		private JButton saveButton;
+		
 		// label for displaying the time in the simulation
 		private JLabel timeLabel;
 		
@@ -276,12 +283,12 @@ public class AntSimGUI extends JFrame
 			// queen test button
 			queenTestButton = new JButton("Fast");
 			queenTestButton.addActionListener(buttonHandler);
-			queenTestButton.setToolTipText("Set simulation speed to 1 turn per millisecond");
+			queenTestButton.setToolTipText("Run the simulation as fast as possible");
 			
 			// scout test button
 			scoutTestButton = new JButton("Normal");
 			scoutTestButton.addActionListener(buttonHandler);
-			scoutTestButton.setToolTipText("Set simulation speed to 1 turn per 10 milliseconds");
+			scoutTestButton.setToolTipText("Set simulation speed to 10 turns per second");
 			
 			// forager test button
 			foragerTestButton = new JButton("Slow");
@@ -303,6 +310,11 @@ public class AntSimGUI extends JFrame
 			stepButton.addActionListener(buttonHandler);
 			stepButton.setToolTipText("Step through the simulation one turn at a time");
 			
+			// button for saving the simulation
+			saveButton = new JButton("Save");
+			saveButton.addActionListener(buttonHandler);
+			saveButton.setToolTipText("Save the simulation to a checkpoint file");
+			
 			// label for displaying simulation time
 			timeLabel = new JLabel();
 			timeLabel.setFont(new Font("Verdana", Font.BOLD, 12));
@@ -321,6 +333,7 @@ public class AntSimGUI extends JFrame
 			this.add(soldierTestButton);
 			this.add(runButton);
 			this.add(stepButton);
+			this.add(saveButton);
 			this.add(timeLabel);
 		}
 	
@@ -394,6 +407,11 @@ public class AntSimGUI extends JFrame
 					// run the simulation one turn at a time
 					fireSimulationEvent(SimulationEvent.STEP_EVENT);
 				}
+				else if (b.getText().equals("Save"))
+				{
+					// save the simulation to a file
+					fireSimulationEvent(SimulationEvent.SAVE_EVENT);
+				}
 			}
 		}
 	}
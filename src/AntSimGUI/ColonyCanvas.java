@@ -0,0 +1,366 @@
+package AntSimGUI;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.InputEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.image.BufferedImage;
+
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+
+/**
+ *	class ColonyCanvas
+ *
+ *	draws the whole colony onto a single component
+ *
+ *	instead of one panel per node with a dozen labels each, the canvas keeps
+ *	the state of every node in arrays and paints the nodes itself. only the
+ *	nodes inside the clip rectangle are painted, so repainting a few changed
+ *	nodes, or scrolling around a very large colony, only touches what is
+ *	actually on screen. the ant images are scaled once per tile size and
+ *	reused for every node.
+ *
+ *	hold ctrl and use the mouse wheel to zoom
+ */
+public class ColonyCanvas extends JComponent
+{
+
+	/************
+	 *	constants
+	 ***********/
+
+	// image indices
+	public final static int QUEEN = 0;
+	public final static int FORAGER = 1;
+	public final static int SCOUT = 2;
+	public final static int SOLDIER = 3;
+	public final static int BALA = 4;
+
+	// smallest and largest node size in pixels
+	public final static int MIN_TILE_SIZE = 8;
+	public final static int MAX_TILE_SIZE = 96;
+
+	// node size at which the counts are drawn as text
+	private final static int TEXT_TILE_SIZE = 64;
+
+	// background color of nodes that have not been explored
+	private final Color HIDDEN_NODE_COLOR = new Color(150, 130, 40);
+
+	// background color if node has been revealed
+	private final Color OPEN_NODE_COLOR = new Color(200, 178, 55);
+
+	// background color if queen is present
+	private final Color QUEEN_NODE_COLOR = new Color(128, 128, 128);
+
+	// color for node borders
+	private final Color GRID_COLOR = new Color(120, 105, 30);
+
+	// colors depicting concentration of pheromone, one per 200 units
+	// 		ranking is violet (low) to red (high)
+	private final Color[] PHEROMONE_RAMP = {
+		new Color(169, 78, 202),	// violet
+		new Color(79, 79, 252),		// blue
+		new Color(105, 171, 100),	// green
+		new Color(255, 255, 101),	// yellow
+		new Color(255, 204, 50),	// orange
+		new Color(220, 79, 79)		// red
+	};
+
+	// default font for text
+	private final Font NODE_FONT = new Font("Verdana", Font.BOLD, 10);
+
+	// files for the ant images, by image index
+	private final static String[] IMAGE_FILES = {
+		"images/queen.gif",
+		"images/forager.gif",
+		"images/scout.gif",
+		"images/soldier.gif",
+		"images/bala.gif"
+	};
+
+
+	/*************
+	 *	attributes
+	 ************/
+
+	// size of the colony in nodes
+	private int colonyWidth;
+	private int colonyHeight;
+
+	// size of a node in pixels
+	private int tileSize;
+
+	// state of each node, indexed by y * colonyWidth + x
+	private int[] food;
+	private int[] pheromone;
+	private int[] antCounts;	// 5 per node, by image index
+	private boolean[] revealed;
+
+	// original ant images
+	private Image[] images;
+
+	// ant images scaled for the current tile size
+	private BufferedImage[] sprites;
+
+	// bounds of the nodes changed since the last repaint request, in nodes
+	private int dirtyMinX;
+	private int dirtyMinY;
+	private int dirtyMaxX;
+	private int dirtyMaxY;
+
+
+	/***************
+	 *	constructors
+	 **************/
+
+	/**
+	 *	create a new ColonyCanvas
+	 *
+	 *	@param	colonyWidth		width of colony in nodes
+	 *	@param	colonyHeight	height of colony in nodes
+	 *	@param	tileSize		starting size of a node in pixels
+	 */
+	public ColonyCanvas(int colonyWidth, int colonyHeight, int tileSize)
+	{
+		super();
+
+		this.colonyWidth = colonyWidth;
+		this.colonyHeight = colonyHeight;
+
+		int cellCount = colonyWidth * colonyHeight;
+		food = new int[cellCount];
+		pheromone = new int[cellCount];
+		antCounts = new int[cellCount * IMAGE_FILES.length];
+		revealed = new boolean[cellCount];
+
+		// load ant images once
+		images = new Image[IMAGE_FILES.length];
+		for (int i = 0; i < IMAGE_FILES.length; i++)
+			images[i] = new ImageIcon(IMAGE_FILES[i]).getImage();
+
+		setOpaque(true);
+		clearDirty();
+		setTileSize(tileSize);
+
+		// ctrl + mouse wheel zooms, plain wheel is left to the scroll pane
+		addMouseWheelListener(new MouseWheelListener() {
+			public void mouseWheelMoved(MouseWheelEvent e) {
+				if ((e.getModifiersEx() & InputEvent.CTRL_DOWN_MASK) != 0)
+					setTileSize(getTileSize() - e.getWheelRotation() * Math.max(1, getTileSize() / 8));
+				else if (getParent() != null)
+					getParent().dispatchEvent(SwingUtilities.convertMouseEvent(ColonyCanvas.this, e, getParent()));
+			}
+		});
+	}
+
+
+	/**********
+	 *	methods
+	 *********/
+
+	/**
+	 *	return the size of a node in pixels
+	 */
+	public int getTileSize()
+	{
+		return tileSize;
+	}
+
+
+	/**
+	 *	set the size of a node in pixels
+	 *
+	 *	the size is kept between MIN_TILE_SIZE and MAX_TILE_SIZE
+	 *
+	 *	@param	size		new node size
+	 */
+	public void setTileSize(int size)
+	{
+		size = Math.max(MIN_TILE_SIZE, Math.min(MAX_TILE_SIZE, size));
+		if (size == tileSize)
+			return;
+
+		tileSize = size;
+		buildSprites();
+		setPreferredSize(new Dimension(colonyWidth * tileSize, colonyHeight * tileSize));
+		revalidate();
+		repaint();
+	}
+
+
+	/**
+	 *	scale every ant image to fit a third of a node
+	 */
+	private void buildSprites()
+	{
+		int spriteSize = Math.max(4, tileSize / 3);
+		sprites = new BufferedImage[images.length];
+
+		for (int i = 0; i < images.length; i++)
+		{
+			sprites[i] = new BufferedImage(spriteSize, spriteSize, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g = sprites[i].createGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+			if (images[i].getWidth(null) > 0)
+				g.drawImage(images[i], 0, 0, spriteSize, spriteSize, null);
+			else
+			{
+				// image missing, use a dot
+				g.setColor(i == BALA ? Color.RED : Color.BLACK);
+				g.fillOval(0, 0, spriteSize, spriteSize);
+			}
+			g.dispose();
+		}
+	}
+
+
+	/**
+	 *	store the state of a single node
+	 *
+	 *	the node is not repainted until repaintChanged is called
+	 *
+	 *	@param	cell		node index, y * colony width + x
+	 *	@param	foodAmount	units of food in the node
+	 *	@param	level		units of pheromone in the node
+	 *	@param	counts		number of ants of each kind, by image index
+	 *	@param	countsStart	index in counts of this node's queen count
+	 *	@param	isRevealed	true once the node has been explored
+	 */
+	public void setNode(int cell, int foodAmount, int level, int[] counts, int countsStart, boolean isRevealed)
+	{
+		food[cell] = foodAmount;
+		pheromone[cell] = level;
+		revealed[cell] = isRevealed;
+		System.arraycopy(counts, countsStart, antCounts, cell * IMAGE_FILES.length, IMAGE_FILES.length);
+
+		int x = cell % colonyWidth;
+		int y = cell / colonyWidth;
+		dirtyMinX = Math.min(dirtyMinX, x);
+		dirtyMinY = Math.min(dirtyMinY, y);
+		dirtyMaxX = Math.max(dirtyMaxX, x);
+		dirtyMaxY = Math.max(dirtyMaxY, y);
+	}
+
+
+	/**
+	 *	ask Swing to repaint the area covering every node set since the last call
+	 *
+	 *	Swing clips the request to what is visible in the scroll pane
+	 */
+	public void repaintChanged()
+	{
+		if (dirtyMaxX < dirtyMinX)
+			return;
+
+		repaint(dirtyMinX * tileSize, dirtyMinY * tileSize,
+				(dirtyMaxX - dirtyMinX + 1) * tileSize, (dirtyMaxY - dirtyMinY + 1) * tileSize);
+		clearDirty();
+	}
+
+
+	private void clearDirty()
+	{
+		dirtyMinX = Integer.MAX_VALUE;
+		dirtyMinY = Integer.MAX_VALUE;
+		dirtyMaxX = -1;
+		dirtyMaxY = -1;
+	}
+
+
+	/**
+	 *	paint the nodes that fall inside the clip rectangle
+	 */
+	protected void paintComponent(Graphics g)
+	{
+		Rectangle clip = g.getClipBounds();
+		if (clip == null)
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+		int firstX = Math.max(0, clip.x / tileSize);
+		int firstY = Math.max(0, clip.y / tileSize);
+		int lastX = Math.min(colonyWidth - 1, (clip.x + clip.width - 1) / tileSize);
+		int lastY = Math.min(colonyHeight - 1, (clip.y + clip.height - 1) / tileSize);
+
+		g.setFont(NODE_FONT);
+		for (int y = firstY; y <= lastY; y++)
+		{
+			for (int x = firstX; x <= lastX; x++)
+				paintNode(g, y * colonyWidth + x, x * tileSize, y * tileSize);
+		}
+	}
+
+
+	/**
+	 *	paint one node with its top left corner at (left, top)
+	 */
+	private void paintNode(Graphics g, int cell, int left, int top)
+	{
+		if (!revealed[cell])
+		{
+			g.setColor(HIDDEN_NODE_COLOR);
+			g.fillRect(left, top, tileSize, tileSize);
+			return;
+		}
+
+		int base = cell * IMAGE_FILES.length;
+		g.setColor(backgroundColor(pheromone[cell], antCounts[base + QUEEN] > 0));
+		g.fillRect(left, top, tileSize, tileSize);
+		g.setColor(GRID_COLOR);
+		g.drawRect(left, top, tileSize - 1, tileSize - 1);
+
+		// images down the right hand side, two columns if needed
+		int spriteSize = sprites[0].getWidth();
+		int slot = 0;
+		for (int i = 0; i < IMAGE_FILES.length; i++)
+		{
+			if (antCounts[base + i] > 0)
+			{
+				int column = slot / 3;
+				int row = slot % 3;
+				g.drawImage(sprites[i], left + tileSize - (column + 1) * spriteSize, top + row * spriteSize, null);
+				slot++;
+			}
+		}
+
+		// counts, only when there is room to read them
+		if (tileSize >= TEXT_TILE_SIZE)
+		{
+			g.setColor(Color.BLACK);
+			int line = tileSize / 8;
+			g.drawString("" + (left / tileSize + 1) + ", " + (top / tileSize + 1), left + 4, top + line);
+			g.drawString("F: " + antCounts[base + FORAGER], left + 4, top + line * 2);
+			g.drawString("Sc: " + antCounts[base + SCOUT], left + 4, top + line * 3);
+			g.drawString("S: " + antCounts[base + SOLDIER], left + 4, top + line * 4);
+			g.drawString("B: " + antCounts[base + BALA], left + 4, top + line * 5);
+			g.drawString("Food: " + food[cell], left + 4, top + line * 6);
+			g.drawString("Ph: " + pheromone[cell], left + 4, top + line * 7);
+		}
+	}
+
+
+	/**
+	 *	return the background color for a node
+	 *
+	 *	pheromone is shown from violet (1 - 199 units) to red (>= 1000 units),
+	 *	otherwise the queen's node is gray and other nodes are the open color
+	 */
+	private Color backgroundColor(int level, boolean queenPresent)
+	{
+		if (level > 0)
+			return PHEROMONE_RAMP[Math.min(level / 200, PHEROMONE_RAMP.length - 1)];
+		else if (queenPresent)
+			return QUEEN_NODE_COLOR;
+		else
+			return OPEN_NODE_COLOR;
+	}
+}
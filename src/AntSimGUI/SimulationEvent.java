@@ -36,6 +36,9 @@ public class SimulationEvent extends EventObject
 	// run simulation one turn at a time
 	public final static int STEP_EVENT = 6;
 	
+	// save the simulation to a checkpoint file
+	public final static int SAVE_EVENT = 7;
+	
 	
 	/*************
 	 *	attributes
@@ -0,0 +1,187 @@
+package dataStructures;
+
+/**
+ *	EpochIntSet class
+ *
+ *	set of primitive ints with constant time clearing
+ *
+ *	uses open addressing with linear probing. next to every slot is the epoch
+ *	it was written in; a slot only counts as used if its stamp matches the
+ *	current epoch, so clear() just moves to the next epoch instead of wiping
+ *	the table. nothing is allocated unless the table has to grow.
+ */
+public class EpochIntSet
+{
+
+	/*************
+	 *	constants
+	 ************/
+	
+	/** default table capacity, always a power of 2 */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	
+	/*************
+	 *	attributes
+	 ************/
+	
+	/** the keys */
+	private int[] keys;
+	
+	/** epoch each slot was last written in */
+	private int[] stamps;
+	
+	/** the current epoch, never 0 so a fresh table reads as empty */
+	private int epoch;
+	
+	/** number of items currently in this EpochIntSet */
+	private int theSize;
+
+
+	/***************
+	 *	constructors
+	 **************/
+	
+
+	/**
+	 *	return a new, empty EpochIntSet with the default capacity
+	 */
+	public EpochIntSet()
+	{
+		keys = new int[DEFAULT_CAPACITY];
+		stamps = new int[DEFAULT_CAPACITY];
+		epoch = 1;
+	}
+
+
+	/**********
+	 *	methods
+	 *********/
+	
+
+	/**
+	 *	spread the bits of a key so nearby keys land in different slots
+	 */
+	private static int hash(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	
+	/**
+	 *	add the specified item
+	 *
+	 *	return true if the item was added, false if it was already present
+	 */
+	public boolean add(int item)
+	{
+		// keep the table at most half full
+		if ((theSize + 1) * 2 > keys.length)
+			rehash(keys.length * 2);
+		
+		int mask = keys.length - 1;
+		for (int i = hash(item) & mask; ; i = (i + 1) & mask)
+		{
+			if (stamps[i] != epoch)
+			{
+				keys[i] = item;
+				stamps[i] = epoch;
+				theSize++;
+				return true;
+			}
+			if (keys[i] == item)
+				return false;
+		}
+	}
+	
+	
+	/**
+	 *	return true if the specified item is present
+	 */
+	public boolean contains(int item)
+	{
+		int mask = keys.length - 1;
+		for (int i = hash(item) & mask; stamps[i] == epoch; i = (i + 1) & mask)
+		{
+			if (keys[i] == item)
+				return true;
+		}
+		return false;
+	}
+	
+	
+	/**
+	 *	copy every item into the specified array, which must hold size() items
+	 *
+	 *	return the number of items copied
+	 */
+	public int toArray(int[] dest)
+	{
+		int count = 0;
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (stamps[i] == epoch)
+				dest[count++] = keys[i];
+		}
+		return count;
+	}
+	
+	
+	/**
+	 *	empty the EpochIntSet in constant time
+	 */
+	public void clear()
+	{
+		theSize = 0;
+		epoch++;
+		
+		// after wrapping around, old stamps could match again
+		if (epoch == 0)
+		{
+			for (int i = 0; i < stamps.length; i++)
+				stamps[i] = 0;
+			epoch = 1;
+		}
+	}
+	
+	
+	/**
+	 *	move every item into a table of the specified capacity
+	 */
+	private void rehash(int capacity)
+	{
+		int[] oldKeys = keys;
+		int[] oldStamps = stamps;
+		int oldEpoch = epoch;
+		
+		keys = new int[capacity];
+		stamps = new int[capacity];
+		epoch = 1;
+		theSize = 0;
+		
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldStamps[i] == oldEpoch)
+				add(oldKeys[i]);
+		}
+	}
+
+
+	/**
+	 *	return the number of items in the EpochIntSet
+	 */
+	public int size()
+	{
+		return theSize;
+	}
+
+
+	/**
+	 *	return true if the EpochIntSet is empty
+	 */
+	public boolean isEmpty()
+	{
+		return theSize == 0;
+	}
+}
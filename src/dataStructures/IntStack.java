@@ -0,0 +1,135 @@
+package dataStructures;
+
+/**
+ *	IntStack class
+ *
+ *	array-based stack of primitive ints
+ *
+ *	items are stored unboxed in a single array, so pushing and popping never
+ *	allocate once the array has grown to its working size. clearing keeps the
+ *	array for reuse.
+ */
+public class IntStack
+{
+
+	/*************
+	 *	constants
+	 ************/
+	
+	/** default array capacity */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	
+	/*************
+	 *	attributes
+	 ************/
+	
+	/** array to store items, the bottom of the stack is at index 0 */
+	private int[] theItems;
+	
+	/** current number of items in stack */
+	private int theSize;
+
+
+	/***************
+	 *	constructors
+	 **************/
+	
+
+	/**
+	 *	return a new, empty IntStack with the default capacity
+	 */
+	public IntStack()
+	{
+		theItems = new int[DEFAULT_CAPACITY];
+	}
+
+
+	/**********
+	 *	methods
+	 *********/
+	
+
+	/**
+	 *	add the specified item to the top of the stack
+	 */
+	public void push(int item)
+	{
+		// resize array if full
+		if (theSize == theItems.length)
+		{
+			int[] old = theItems;
+			theItems = new int[old.length * 2];
+			System.arraycopy(old, 0, theItems, 0, theSize);
+		}
+		
+		theItems[theSize++] = item;
+	}
+	
+	
+	/**
+	 *	remove and return the item at the top of the stack
+	 *
+	 *	throws UnderflowException if stack is empty
+	 */
+	public int pop()
+	{
+		if (theSize == 0)
+			throw new UnderflowException("IntStack pop");
+		
+		return theItems[--theSize];
+	}
+	
+	
+	/**
+	 *	return the item at the top of the stack; the item is not removed
+	 *
+	 *	throws UnderflowException if stack is empty
+	 */
+	public int peek()
+	{
+		if (theSize == 0)
+			throw new UnderflowException("IntStack peek");
+		
+		return theItems[theSize - 1];
+	}
+	
+	
+	/**
+	 *	return the item at the specified position, 0 being the bottom of the stack
+	 */
+	public int get(int index)
+	{
+		if (index < 0 || index >= theSize)
+			throw new IndexOutOfBoundsException("IntStack get " + index);
+		
+		return theItems[index];
+	}
+	
+	
+	/**
+	 *	empty the IntStack, keeping its array
+	 */
+	public void clear()
+	{
+		theSize = 0;
+	}
+
+
+	/**
+	 *	return the number of items in the IntStack
+	 */
+	public int size()
+	{
+		return theSize;
+	}
+
+
+	/**
+	 *	return true if the IntStack is empty
+	 */
+	public boolean isEmpty()
+	{
+		return theSize == 0;
+	}
+}
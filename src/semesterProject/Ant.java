@@ -8,21 +8,29 @@ public abstract class Ant {
 		
 	int id;
 	
+	final byte type; // one of the AntType tags
+	
+	int slot = -1; // position in the colony's AntRegistry while alive
+	
 	int lifeSpan = 3640; // one year worth of turns
 	
 	int age = 0;
 	
-	int x = 13;
+	int cell; // index into the colony grid, y * width + x
 	
-	int y = 13;
+	int cellSlot = -1; // position among the ants sharing this ant's cell
 	
 	/***************
 	 *	constructors
 	 **************/
 	
-	public Ant (Colony colony)
+	public Ant (Colony colony, int type)
 	{
+		this.type = (byte) type;
 		id = colony.antCount;
+		
+		// every ant but the bala starts at the queen
+		cell = colony.queenCell;
 	}
 	
 	/**********
@@ -33,176 +41,58 @@ public abstract class Ant {
 	
 	void move (Colony colony)
 	{
-		int attempts = 0;
-		int tempX = x;
-		int tempY = y;
-				
-		// rolls random direction, if it can move update x and y
-		boolean again = true;
-		while (again && attempts < 10)
-		{
-			switch (Simulation.getRandomNum(1600)%8)
-			{
-				case 0: // move up and left
-					if (x > 0 && y > 0)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x-1][y-1].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-
-						again = false;
-						tempX--;
-						tempY--;
-					}
-					break;
-				case 1: // move up
-					if (y > 0)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x][y-1].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempY--;
-					}
-					break;
-				case 2: // move up and right
-					if (x < 26 && y > 0)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x+1][y-1].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempX++;
-						tempY--;
-					}
-					break;
-				case 3: // move left
-					if (x > 0)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x-1][y].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempX--;
-					}
-					break;
-				case 4: // move right
-					if (x < 26)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x+1][y].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempX++;
-					}
-					break;
-				case 5: // move down and left
-					if (x > 0 && y < 26)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x-1][y+1].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempX--;
-						tempY++;
-					}
-					break;
-				case 6: // move down
-					if (y < 26)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x][y+1].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempY++;
-					}
-					break;
-				case 7: // move down and right
-					if (x < 26 && y < 26)
-					{
-						if (this instanceof Soldier)
-						{
-							if (colony.map[x+1][y+1].isHidden)
-							{
-								attempts++;
-								break;
-							}
-						}
-						
-						again = false;
-						tempX++;
-						tempY++;
-					}
-					break;
-			} // end switch
-		} // end while (again)
+		ColonyGrid grid = colony.grid;
+		NeighborTable neighbors = grid.neighbors;
 		
-		if (tempX != x || tempY != y)
-		{
-			colony.map[x][y].removeAnt(this);
-			x = tempX;
-			y = tempY;
-			colony.map[x][y].addAnt(this);
-		}
+		// every square the ant is allowed to step into
+		int mask;
+		if (AntType.ENTERS_HIDDEN[type])
+			mask = neighbors.mask(cell);
 		else
+			mask = neighbors.openMask(cell, grid.hidden);
+		
+		// boxed in, stay put
+		if (mask == 0)
 			return;
+		
+		int dir = NeighborTable.randomDirection(mask, colony.rand);
+		moveTo(grid, neighbors.neighbor(cell, dir));
+	}
+	
+	/**
+	 * method to take this ant out of its square and put it into another
+	 * @param grid ColonyGrid the ant lives in
+	 * @param target int cell to move to
+	 */
+	void moveTo (ColonyGrid grid, int target)
+	{
+		if (grid.journal != null)
+			grid.journal.move(slot, cell, target);
+		grid.removeAnt(cell, this);
+		cell = target;
+		grid.addAnt(cell, this);
 	}
 	
 	void attack (Simulation sim, Ant target)
 	{
 		// During an attack, there is a 50% chance it kills the ant it attacks; otherwise, the attack misses and the ant that is attacked survives.
-		if (Simulation.getRandomNum(1000) < 500)
+		if (sim.getRandomNum(1000) < 500)
+		{
+			if (target.type == AntType.BALA)
+				sim.colony.balaKilled++;
+			else if (type == AntType.BALA)
+				sim.colony.killedByBala++;
 			death(sim, target);
+		}
 	} // end attack()
 	
 	void death (Simulation sim, Ant ant)
 	{
-		if (ant instanceof Forager)
+		if (ant.type == AntType.FORAGER)
 			if(!((Forager) ant).forageMode)
 				((Forager) ant).depositFood(sim.colony);
 		
-		if(ant instanceof Queen)
+		if(ant.type == AntType.QUEEN)
 			sim.endSim();
 		
 		sim.colony.removeAnt(ant);
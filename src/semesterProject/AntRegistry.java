@@ -0,0 +1,157 @@
+package semesterProject;
+
+/**
+ * every live ant in the colony, stored in a dense array of slots
+ *
+ * an ant keeps the slot it was given until it dies, and lookups are a plain
+ * array read with the slot number. freed slots go on a free list and are
+ * handed out again last in, first out, so the same sequence of adds and
+ * removes always assigns the same slots. walking the slots from 0 up gives
+ * a stable order that does not depend on hashing.
+ * @author SChmielowski
+ *
+ */
+public class AntRegistry {
+
+	/*************
+	 *	constants
+	 ************/
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	Ant[] slots;
+
+	int slotLimit; // slots at or above this have never been used
+
+	int size;
+
+	int[] freeSlots;
+
+	int freeCount;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	public AntRegistry ()
+	{
+		slots = new Ant[DEFAULT_CAPACITY];
+		freeSlots = new int[DEFAULT_CAPACITY];
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to give an ant a slot
+	 * @param ant Ant to add, its slot field is set
+	 * @return int slot the ant was put in
+	 */
+	public int add(Ant ant)
+	{
+		int slot;
+		if (freeCount > 0)
+			slot = freeSlots[--freeCount];
+		else
+		{
+			if (slotLimit == slots.length)
+				grow();
+			slot = slotLimit++;
+		}
+
+		slots[slot] = ant;
+		ant.slot = slot;
+		size++;
+		return slot;
+	}
+
+	/**
+	 * method to free the slot an ant is in
+	 * @param ant Ant to remove
+	 */
+	public void remove(Ant ant)
+	{
+		int slot = ant.slot;
+		if (slot < 0 || slots[slot] != ant)
+			return;
+
+		slots[slot] = null;
+		freeSlots[freeCount++] = slot;
+		ant.slot = -1;
+		size--;
+	}
+
+	/**
+	 * method to look up an ant
+	 * @param slot int slot to read
+	 * @return Ant in the slot, null if the slot is empty
+	 */
+	public Ant get(int slot)
+	{
+		return slots[slot];
+	}
+
+	/**
+	 * method to copy the slot of every live ant, lowest slot first
+	 * @param dest int[] to copy into, must hold at least size() slots
+	 * @return int number of slots copied
+	 */
+	public int copySlots(int[] dest)
+	{
+		int count = 0;
+		for (int i = 0; i < slotLimit; i++)
+		{
+			if (slots[i] != null)
+				dest[count++] = i;
+		}
+		return count;
+	}
+
+	/**
+	 * method to get the end of the used slots, for walking them in order
+	 * @return int one more than the highest slot ever used
+	 */
+	public int slotLimit()
+	{
+		return slotLimit;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	public void clear()
+	{
+		for (int i = 0; i < slotLimit; i++)
+		{
+			if (slots[i] != null)
+				slots[i].slot = -1;
+			slots[i] = null;
+		}
+		slotLimit = 0;
+		size = 0;
+		freeCount = 0;
+	}
+
+	private void grow()
+	{
+		Ant[] oldSlots = slots;
+		slots = new Ant[oldSlots.length * 2];
+		System.arraycopy(oldSlots, 0, slots, 0, oldSlots.length);
+
+		int[] oldFree = freeSlots;
+		freeSlots = new int[oldFree.length * 2];
+		System.arraycopy(oldFree, 0, freeSlots, 0, oldFree.length);
+	}
+}
@@ -0,0 +1,48 @@
+package semesterProject;
+
+/**
+ * type tags for ants and the rules that depend on them
+ *
+ * every ant carries one of these tags. per-type data, like the ant counts
+ * kept for each square or whether a type may walk into unexplored squares,
+ * lives in arrays indexed by the tag, so adding a new type means adding a
+ * tag and a row to each table instead of another instanceof test.
+ * @author SChmielowski
+ *
+ */
+public final class AntType {
+
+	/*************
+	 *	constants
+	 ************/
+
+	public static final int QUEEN = 0;
+
+	public static final int FORAGER = 1;
+
+	public static final int SCOUT = 2;
+
+	public static final int SOLDIER = 3;
+
+	public static final int BALA = 4;
+
+	// number of types, the size of every per-type table
+	public static final int COUNT = 5;
+
+	// display names
+	static final String[] NAMES = {"queen", "forager", "scout", "soldier", "bala"};
+
+	// true if the type is an enemy of the colony
+	static final boolean[] IS_ENEMY = {false, false, false, false, true};
+
+	// true if a random move may take the type into a square that is still hidden
+	static final boolean[] ENTERS_HIDDEN = {false, false, true, false, true};
+
+	/***************
+	 *	constructors
+	 **************/
+
+	private AntType ()
+	{
+	}
+}
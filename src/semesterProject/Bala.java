@@ -12,30 +12,36 @@ public class Bala extends Ant {
 	
 	public Bala (Colony colony)
 	{
-		super(colony);
+		super(colony, AntType.BALA);
 		
-		int randomNum = Simulation.getRandomNum(105);
+		// pick one of the squares around the edge of the map
+		int maxX = colony.width - 1;
+		int maxY = colony.height - 1;
+		int x;
+		int y;
+		int randomNum = colony.getRandomNum(2 * maxX + 2 * maxY);
 
-		if (randomNum <= 26)
+		if (randomNum <= maxX)
 		{
 			x = randomNum;
 			y = 0;
 		}
-		else if (randomNum <= 52)
+		else if (randomNum <= maxX + maxY)
 		{
-			x = 26;
-			y = randomNum-26;
+			x = maxX;
+			y = randomNum-maxX;
 		}
-		else if (randomNum <= 78)
+		else if (randomNum <= maxX + 2 * maxY)
 		{
 			x = 0;
-			y = randomNum-52;
+			y = randomNum-maxX-maxY;
 		}
 		else
 		{
-			x = randomNum-78;
-			y = 26;
+			x = randomNum-maxX-2*maxY;
+			y = maxY;
 		}
+		cell = colony.grid.cell(x, y);
 	}
 
 	/**********
@@ -52,8 +58,8 @@ public class Bala extends Ant {
 			return;
 		}
 
-		if (sim.colony.map[x][y].getFriendlyCount() > 0)
-			attack(sim, sim.colony.randomFriendly(x, y));
+		if (sim.colony.grid.getFriendlyCount(cell) > 0)
+			attack(sim, sim.colony.randomFriendly(cell));
 		else
 			super.move(sim.colony);
 	} // end takeTurn()
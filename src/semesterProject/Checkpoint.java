@@ -0,0 +1,491 @@
+package semesterProject;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * saves the complete state of a simulation to a binary file and reads it back
+ *
+ * a checkpoint holds the grid, the time, the colony's counters, the state of
+ * the random number generator and every live ant, including the order ants
+ * sit in the registry and in each square. a restored simulation therefore
+ * makes exactly the same decisions as the one that was saved.
+ *
+ * the file is written through a FileChannel from a direct buffer, and the
+ * grid arrays go across as bulk copies, so a colony of a million ants takes
+ * milliseconds to save. reading maps the file into memory.
+ *
+ * layout, all numbers big endian:
+ *
+ *		int magic "ANTS", int version
+ *		int width, height, queenX, queenY
+ *		int year, day, turn, long totalTurns
+ *		int antCount, population, peakPopulation, long foodDelivered
+ *		long balaSpawned, balaKilled, killedByBala
+ *		int generator state length, long[] generator state
+ *		int[] food, int[] pheromone, long[] hidden squares as bits
+ *		int slotLimit, int free slot count, int[] free slots, int live ants
+ *		per ant, lowest slot first:
+ *			byte type, int slot, id, age, lifeSpan, cell, cellSlot
+ *			forager only: byte flags, int lastPos,
+ *				int path length, int[] path, int visited count, int[] visited
+ * @author SChmielowski
+ *
+ */
+public class Checkpoint {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final int MAGIC = 0x414E5453; // "ANTS"
+
+	static final int VERSION = 2;
+
+	static final int BUFFER_SIZE = 1 << 20;
+
+	// forager flag bits
+	static final int FORAGE_MODE = 1;
+
+	static final int HAS_FOOD = 2;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	SimulationConfig config;
+
+	ByteBuffer data; // positioned just past the config
+
+	/***************
+	 *	constructors
+	 **************/
+
+	private Checkpoint (SimulationConfig config, ByteBuffer data)
+	{
+		this.config = config;
+		this.data = data;
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	public SimulationConfig getConfig()
+	{
+		return config;
+	}
+
+	/**
+	 * method to open a checkpoint and check its header
+	 * @param file Path of the checkpoint
+	 * @return Checkpoint ready to be restored into a new Simulation
+	 * @throws IOException if the file cannot be read or is not a checkpoint
+	 */
+	public static Checkpoint load(Path file) throws IOException
+	{
+		ByteBuffer data;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		try
+		{
+			if (data.getInt() != MAGIC)
+				throw new IOException(file + " is not a checkpoint");
+			int version = data.getInt();
+			if (version != VERSION)
+				throw new IOException(file + " is checkpoint version " + version + ", expected " + VERSION);
+
+			int width = data.getInt();
+			int height = data.getInt();
+			int queenX = data.getInt();
+			int queenY = data.getInt();
+			return new Checkpoint(new SimulationConfig(width, height, queenX, queenY), data);
+		}
+		catch (BufferUnderflowException e)
+		{
+			throw new IOException(file + " is truncated");
+		}
+	} // end load()
+
+	/**
+	 * method to write the state of a simulation between turns
+	 * @param sim Simulation to save, must not be taking a turn
+	 * @param file Path to write, replaced if it exists
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void save(Simulation sim, Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			save(sim, channel);
+		}
+	} // end save()
+
+	/**
+	 * method to write the state of a simulation between turns to any channel
+	 * @param sim Simulation to save, must not be taking a turn
+	 * @param channel WritableByteChannel to write to, left open
+	 * @throws IOException if the channel cannot be written
+	 */
+	public static void save(Simulation sim, WritableByteChannel channel) throws IOException
+	{
+		Colony colony = sim.colony;
+		ColonyGrid grid = colony.grid;
+
+		Writer out = new Writer(channel);
+
+		out.putInt(MAGIC);
+		out.putInt(VERSION);
+		out.putInt(colony.width);
+		out.putInt(colony.height);
+		out.putInt(colony.queenX);
+		out.putInt(colony.queenY);
+
+		out.putInt(sim.year);
+		out.putInt(sim.day);
+		out.putInt(sim.turn);
+		out.putLong(sim.totalTurns);
+
+		out.putInt(colony.antCount);
+		out.putInt(colony.population);
+		out.putInt(colony.peakPopulation);
+		out.putLong(colony.foodDelivered);
+		out.putLong(colony.balaSpawned);
+		out.putLong(colony.balaKilled);
+		out.putLong(colony.killedByBala);
+
+		long[] state = sim.rand.getState();
+		out.putInt(state.length);
+		for (int i = 0; i < state.length; i++)
+			out.putLong(state[i]);
+
+		out.putInts(grid.food, grid.cellCount);
+		out.putInts(grid.pheromone, grid.cellCount);
+		out.putLongs(hiddenBits(grid));
+
+		AntRegistry ants = colony.ants;
+		out.putInt(ants.slotLimit);
+		out.putInt(ants.freeCount);
+		out.putInts(ants.freeSlots, ants.freeCount);
+		out.putInt(ants.size);
+
+		int[] scratch = new int[16];
+		for (int slot = 0; slot < ants.slotLimit; slot++)
+		{
+			Ant ant = ants.slots[slot];
+			if (ant == null)
+				continue;
+
+			out.putByte(ant.type);
+			out.putInt(ant.slot);
+			out.putInt(ant.id);
+			out.putInt(ant.age);
+			out.putInt(ant.lifeSpan);
+			out.putInt(ant.cell);
+			out.putInt(ant.cellSlot);
+
+			if (ant.type == AntType.FORAGER)
+			{
+				Forager forager = (Forager) ant;
+				out.putByte((forager.forageMode ? FORAGE_MODE : 0) | (forager.hasFood ? HAS_FOOD : 0));
+				out.putInt(forager.lastPos);
+
+				int pathLength = forager.stackHome.size();
+				out.putInt(pathLength);
+				for (int i = 0; i < pathLength; i++)
+					out.putInt(forager.stackHome.get(i));
+
+				if (scratch.length < forager.setHome.size())
+					scratch = new int[forager.setHome.size() * 2];
+				int visited = forager.setHome.toArray(scratch);
+				out.putInt(visited);
+				out.putInts(scratch, visited);
+			}
+		}
+
+		out.flush();
+	} // end save()
+
+	/**
+	 * method to fill an empty simulation with the saved state
+	 *
+	 * called once per loaded checkpoint, by the Simulation constructor that
+	 * takes one or by a replay seeking to a keyframe
+	 * @param sim Simulation built from getConfig(), with no ants yet
+	 * @throws IOException if the checkpoint is damaged
+	 */
+	void restore(Simulation sim) throws IOException
+	{
+		Colony colony = sim.colony;
+		ColonyGrid grid = colony.grid;
+		ByteBuffer in = data;
+
+		try
+		{
+			sim.year = in.getInt();
+			sim.day = in.getInt();
+			sim.turn = in.getInt();
+			sim.totalTurns = in.getLong();
+
+			int antCount = in.getInt();
+			int population = in.getInt();
+			int peakPopulation = in.getInt();
+			long foodDelivered = in.getLong();
+			long balaSpawned = in.getLong();
+			long balaKilled = in.getLong();
+			long killedByBala = in.getLong();
+
+			long[] state = new long[in.getInt()];
+			for (int i = 0; i < state.length; i++)
+				state[i] = in.getLong();
+
+			in.asIntBuffer().get(grid.food, 0, grid.cellCount);
+			in.position(in.position() + grid.cellCount * 4);
+			in.asIntBuffer().get(grid.pheromone, 0, grid.cellCount);
+			in.position(in.position() + grid.cellCount * 4);
+			long[] hidden = new long[(grid.cellCount + 63) >>> 6];
+			in.asLongBuffer().get(hidden);
+			in.position(in.position() + hidden.length * 8);
+
+			AntRegistry ants = colony.ants;
+			int slotLimit = in.getInt();
+			int freeCount = in.getInt();
+			int[] freeSlots = new int[Math.max(16, freeCount)];
+			in.asIntBuffer().get(freeSlots, 0, freeCount);
+			in.position(in.position() + freeCount * 4);
+			int live = in.getInt();
+
+			Ant[] slots = new Ant[Math.max(16, slotLimit)];
+			for (int i = 0; i < live; i++)
+			{
+				// the constructors may touch the grid or draw from the generator,
+				// both are put back once every ant exists
+				Ant ant = newAnt(in.get(), colony);
+				ant.slot = in.getInt();
+				ant.id = in.getInt();
+				ant.age = in.getInt();
+				ant.lifeSpan = in.getInt();
+				ant.cell = in.getInt();
+				ant.cellSlot = in.getInt();
+
+				if (ant.type == AntType.FORAGER)
+				{
+					Forager forager = (Forager) ant;
+					int flags = in.get();
+					forager.forageMode = (flags & FORAGE_MODE) != 0;
+					forager.hasFood = (flags & HAS_FOOD) != 0;
+					forager.lastPos = in.getInt();
+
+					for (int pathLength = in.getInt(); pathLength > 0; pathLength--)
+						forager.stackHome.push(in.getInt());
+					for (int visited = in.getInt(); visited > 0; visited--)
+						forager.setHome.add(in.getInt());
+				}
+
+				slots[ant.slot] = ant;
+				if (ant.type == AntType.QUEEN)
+					colony.queen = (Queen) ant;
+			}
+
+			ants.slots = slots;
+			ants.slotLimit = slotLimit;
+			ants.size = live;
+			ants.freeSlots = new int[slots.length];
+			System.arraycopy(freeSlots, 0, ants.freeSlots, 0, freeCount);
+			ants.freeCount = freeCount;
+
+			grid.exploredCount = 0;
+			grid.totalFood = 0;
+			grid.totalPheromone = 0;
+			for (int cell = 0; cell < grid.cellCount; cell++)
+			{
+				grid.hidden[cell] = (hidden[cell >>> 6] & (1L << cell)) != 0;
+				if (!grid.hidden[cell])
+					grid.exploredCount++;
+				grid.totalFood += grid.food[cell];
+				grid.totalPheromone += grid.pheromone[cell];
+				if (grid.pheromone[cell] > 0)
+					grid.pheromoneCells[cell >>> 6] |= 1L << cell;
+			}
+			placeAnts(colony, slots, slotLimit);
+			grid.rehash();
+
+			colony.antCount = antCount;
+			colony.population = population;
+			colony.peakPopulation = peakPopulation;
+			colony.foodDelivered = foodDelivered;
+			colony.balaSpawned = balaSpawned;
+			colony.balaKilled = balaKilled;
+			colony.killedByBala = killedByBala;
+			sim.rand.setState(state);
+			grid.markAllDirty();
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException e)
+		{
+			throw new IOException("checkpoint is damaged", e);
+		}
+	} // end restore()
+
+	/**
+	 * method to create an ant of a saved type
+	 * @param type byte AntType tag
+	 * @param colony Colony the ant belongs to
+	 * @return Ant with its fields still to be filled in
+	 * @throws IOException if the tag is not a known type
+	 */
+	static Ant newAnt(int type, Colony colony) throws IOException
+	{
+		if (type == AntType.QUEEN)
+			return new Queen(colony);
+		else if (type == AntType.FORAGER)
+			return new Forager(colony);
+		else if (type == AntType.SCOUT)
+			return new Scout(colony);
+		else if (type == AntType.SOLDIER)
+			return new Soldier(colony);
+		else if (type == AntType.BALA)
+			return new Bala(colony);
+		else
+			throw new IOException("checkpoint has unknown ant type " + type);
+	} // end newAnt()
+
+	/**
+	 * method to rebuild each square's counts and occupant arrays from the ants
+	 *
+	 * every ant goes back to the index it had in its square, so picking a
+	 * random occupant chooses the same ant it would have before saving
+	 */
+	private static void placeAnts(Colony colony, Ant[] slots, int slotLimit)
+	{
+		ColonyGrid grid = colony.grid;
+		for (int slot = 0; slot < slotLimit; slot++)
+		{
+			Ant ant = slots[slot];
+			if (ant == null)
+				continue;
+
+			colony.liveAnts[ant.type]++;
+
+			grid.antCounts[ant.cell * AntType.COUNT + ant.type]++;
+			if (AntType.IS_ENEMY[ant.type])
+				grid.enemyCount[ant.cell]++;
+			else
+				grid.friendlyCount[ant.cell]++;
+		}
+
+		for (int slot = 0; slot < slotLimit; slot++)
+		{
+			Ant ant = slots[slot];
+			if (ant == null)
+				continue;
+
+			int cell = ant.cell;
+			if (AntType.IS_ENEMY[ant.type])
+			{
+				if (grid.enemies[cell] == null)
+					grid.enemies[cell] = new Ant[Math.max(4, grid.enemyCount[cell])];
+				grid.enemies[cell][ant.cellSlot] = ant;
+			}
+			else
+			{
+				if (grid.friendly[cell] == null)
+					grid.friendly[cell] = new Ant[Math.max(4, grid.friendlyCount[cell])];
+				grid.friendly[cell][ant.cellSlot] = ant;
+			}
+		}
+	} // end placeAnts()
+
+	private static long[] hiddenBits(ColonyGrid grid)
+	{
+		long[] bits = new long[(grid.cellCount + 63) >>> 6];
+		for (int cell = 0; cell < grid.cellCount; cell++)
+		{
+			if (grid.hidden[cell])
+				bits[cell >>> 6] |= 1L << cell;
+		}
+		return bits;
+	} // end hiddenBits()
+
+	/**
+	 * fills a direct buffer and hands it to the channel each time it is full
+	 */
+	static class Writer
+	{
+		WritableByteChannel channel;
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		Writer (WritableByteChannel channel)
+		{
+			this.channel = channel;
+		}
+
+		void putByte(int value) throws IOException
+		{
+			ensure(1);
+			buffer.put((byte) value);
+		}
+
+		void putInt(int value) throws IOException
+		{
+			ensure(4);
+			buffer.putInt(value);
+		}
+
+		void putLong(long value) throws IOException
+		{
+			ensure(8);
+			buffer.putLong(value);
+		}
+
+		/**
+		 * method to copy the start of an array across in as few steps as the buffer allows
+		 */
+		void putInts(int[] values, int length) throws IOException
+		{
+			for (int done = 0; done < length; )
+			{
+				ensure(4);
+				int chunk = Math.min(length - done, buffer.remaining() / 4);
+				buffer.asIntBuffer().put(values, done, chunk);
+				buffer.position(buffer.position() + chunk * 4);
+				done += chunk;
+			}
+		}
+
+		void putLongs(long[] values) throws IOException
+		{
+			for (int done = 0; done < values.length; )
+			{
+				ensure(8);
+				int chunk = Math.min(values.length - done, buffer.remaining() / 8);
+				buffer.asLongBuffer().put(values, done, chunk);
+				buffer.position(buffer.position() + chunk * 8);
+				done += chunk;
+			}
+		}
+
+		private void ensure(int bytes) throws IOException
+		{
+			if (buffer.remaining() < bytes)
+				flush();
+		}
+
+		void flush() throws IOException
+		{
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+	} // end Writer
+}
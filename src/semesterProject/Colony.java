@@ -1,8 +1,9 @@
 package semesterProject;
 
-import dataStructures.HashMap;
-import dataStructures.Map;
-import AntSimGUI.ColonyView;
+import java.util.Arrays;
+
+import dataStructures.IntStack;
+
 
 /**
  * 1.
@@ -32,77 +33,192 @@ public class Colony {
 	 *	attributes
 	 ************/
 	
-	Node map[][] = new Node[27][27];
-	ColonyView vMap = new ColonyView(27, 27);
+	int width;
+	int height;
+	int queenX;
+	int queenY;
+	int queenCell;
+	
+	ColonyGrid grid;
+	ColonyViewBridge bridge; // null when running headless
 
 	int antCount = 0; // colony's lifetime ant count, it never decreases
-	Map colAntHash = new HashMap();
+	AntRegistry ants = new AntRegistry();
+	Queen queen; // null once the queen has died
+	
+	int population = 0; // live friendly ants, bala are not counted
+	int peakPopulation = 0;
+	long foodDelivered = 0; // food foragers have carried back to the queen
+	
+	int[] liveAnts = new int[AntType.COUNT]; // live ants of each type
+	long balaSpawned = 0;
+	long balaKilled = 0; // bala killed by soldiers
+	long killedByBala = 0; // friendly ants killed by bala
+	
+	RandomSource rand; // owned by the simulation this colony belongs to
+	
+	IntStack deadSlots; // shards only, registry slots freed after the phase
 	
 	/***************
 	 *	constructors
 	 **************/
 	
-	public Colony ()
+	public Colony (RandomSource rand)
 	{
-		initColony();
+		this(true, rand, new SimulationConfig());
 	}
 	
-	/*************
-	 *	methods
-	 ************/
+	public Colony (boolean withView, RandomSource rand, SimulationConfig config)
+	{
+		this.rand = rand;
+		width = config.width;
+		height = config.height;
+		queenX = config.queenX;
+		queenY = config.queenY;
+		
+		grid = new ColonyGrid(width, height, withView);
+		queenCell = grid.cell(queenX, queenY);
+		if (withView)
+			bridge = new ColonyViewBridge(grid);
+	}
 	
-	private void initColony () 
+	/**
+	 * creates a shard for one tile of the parallel engine
+	 * 
+	 * the shard shares the squares and the registry but counts its own
+	 * changes and only notes which ants died, see merge()
+	 * @param shared Colony the shard works on
+	 * @param rand RandomSource the tile draws from
+	 */
+	Colony (Colony shared, RandomSource rand)
 	{
-		for (int y = 0; y < 27; y++)
-		{
-			for (int x = 0; x < 27; x++)
-			{
-				map[x][y] = new Node(x, y);
-				vMap.addColonyNodeView(map[x][y].vNode, x, y);
-			}
-		}
+		this.rand = rand;
+		width = shared.width;
+		height = shared.height;
+		queenX = shared.queenX;
+		queenY = shared.queenY;
+		queenCell = shared.queenCell;
+		
+		grid = new ColonyGrid(shared.grid);
+		ants = shared.ants;
+		deadSlots = new IntStack();
 	}
 	
+	/*************
+	 *	methods
+	 ************/
+	
 	public void addAnt(Ant ant)
 	{
 		// add ant to colony ant list
-		colAntHash.add(ant.id, ant);
+		ants.add(ant);
+		if (ant.type == AntType.QUEEN)
+			queen = (Queen) ant;
 		
 		// add ant to specific node
-		map[ant.x][ant.y].addAnt(ant);
+		grid.addAnt(ant.cell, ant);
+		if (grid.journal != null)
+			grid.journal.spawn(ant.type, ant.cell);
 
 		antCount++;
+		liveAnts[ant.type]++;
+		if (ant.type == AntType.BALA)
+			balaSpawned++;
+		
+		if (!AntType.IS_ENEMY[ant.type])
+		{
+			population++;
+			if (population > peakPopulation)
+				peakPopulation = population;
+		}
 	}
 	
 	public void removeAnt(Ant ant)
 	{
 		// remove from node
-		map[ant.x][ant.y].removeAnt(ant);
+		grid.removeAnt(ant.cell, ant);
 		
 		// remove from master ant list
-		colAntHash.remove(ant.id);
+		if (grid.journal != null)
+			grid.journal.death(ant.slot);
+		if (deadSlots == null)
+			ants.remove(ant);
+		else
+			deadSlots.push(ant.slot);
+		if (ant == queen)
+			queen = null;
+		
+		liveAnts[ant.type]--;
+		if (!AntType.IS_ENEMY[ant.type])
+			population--;
 	}
 	
-	public Ant randomEnemy(int x, int y)
+	/**
+	 * method to get a random number from the simulation's generator
+	 * @param max int one more than the highest possible return value
+	 * @return int random number
+	 */
+	public int getRandomNum(int max)
 	{
-		return (Ant) colAntHash.get(map[x][y].balaList.get(Simulation.getRandomNum(map[x][y].balaCount)));		
+		return rand.nextInt(max);
 	}
 	
-	public Ant randomFriendly(int x, int y)
+	public Ant randomEnemy(int cell)
 	{
-		return (Ant) colAntHash.get(map[x][y].friendlyList.get(Simulation.getRandomNum(map[x][y].getFriendlyCount())));		
+		return grid.enemies[cell][getRandomNum(grid.enemyCount[cell])];		
 	}
 	
-	public void resetColony()
+	public Ant randomFriendly(int cell)
 	{
-		colAntHash.clear();
-		antCount = 0;
-		for (int y = 0; y < 27; y++)
+		return grid.friendly[cell][getRandomNum(grid.friendlyCount[cell])];		
+	}
+	
+	/**
+	 * method to fold a shard's changes into this colony and empty the shard
+	 * 
+	 * dead ants leave the registry in the order they died
+	 * @param shard Colony made from this colony
+	 */
+	void merge(Colony shard)
+	{
+		grid.merge(shard.grid);
+		
+		IntStack dead = shard.deadSlots;
+		for (int i = 0; i < dead.size(); i++)
 		{
-			for (int x = 0; x < 27; x++)
-			{
-				map[x][y].resetNode();
-			}
+			Ant ant = ants.get(dead.get(i));
+			ants.remove(ant);
+			if (ant == queen)
+				queen = null;
 		}
+		dead.clear();
+		
+		population += shard.population;
+		foodDelivered += shard.foodDelivered;
+		balaKilled += shard.balaKilled;
+		killedByBala += shard.killedByBala;
+		for (int type = 0; type < AntType.COUNT; type++)
+			liveAnts[type] += shard.liveAnts[type];
+		
+		shard.population = 0;
+		shard.foodDelivered = 0;
+		shard.balaKilled = 0;
+		shard.killedByBala = 0;
+		Arrays.fill(shard.liveAnts, 0);
+	} // end merge()
+	
+	public void resetColony()
+	{
+		ants.clear();
+		queen = null;
+		antCount = 0;
+		population = 0;
+		peakPopulation = 0;
+		foodDelivered = 0;
+		Arrays.fill(liveAnts, 0);
+		balaSpawned = 0;
+		balaKilled = 0;
+		killedByBala = 0;
+		grid.reset();
 	}
 }
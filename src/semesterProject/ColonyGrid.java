@@ -0,0 +1,474 @@
+package semesterProject;
+
+import java.util.Arrays;
+
+import dataStructures.IntStack;
+
+
+/**
+ * storage for every square of the colony
+ *
+ * instead of one object per square, each property lives in its own flat
+ * array indexed by cell id, where cell = y * width + x. walking a row of the
+ * map, or the 3 x 3 block around an ant, touches neighbouring array slots
+ * instead of chasing a pointer per square.
+ *
+ * the ants in a square are kept in a small array per square. each ant
+ * remembers its index in that array, so adding, removing (by swapping the
+ * last ant into the hole) and picking a random occupant are all O(1).
+ *
+ * squares holding pheromone are marked in a bitset, so the daily decay only
+ * visits those squares instead of the whole map.
+ *
+ * the grid knows nothing about Swing. when it has a view, every change
+ * sets the square's bit in the dirty bitset for ColonyViewBridge to pick up.
+ * while a JournalRecorder is attached, every change is also reported to it.
+ *
+ * the parallel engine gives each tile a shard, a second ColonyGrid that
+ * shares every per-square array but keeps its own running totals and its
+ * own list of squares that gained pheromone. shards never write anything
+ * two tiles could share, and merge folds them back in between phases.
+ *
+ * stateHash is a zobrist style hash of every square: its food, pheromone,
+ * whether it is revealed and which ants are in it. each of those facts has
+ * a 64 bit key, made by running the fact through the splitmix64 finalizer
+ * instead of looking it up in a table, so a huge grid costs no memory. the
+ * hash is the sum of the keys of everything true right now, and every
+ * change adds the new key and subtracts the old one, so it is never
+ * recomputed and a shard's changes merge by addition in any order. two runs
+ * whose hashes differ after a turn have diverged by then.
+ * @author SChmielowski
+ *
+ */
+public class ColonyGrid {
+
+	/*************
+	 *	constants
+	 ************/
+
+	// kinds of fact the state hash is made of
+	static final long FOOD_SALT = 0x243F6A8885A308D3L;
+
+	static final long PHEROMONE_SALT = 0x13198A2E03707344L;
+
+	static final long REVEALED_SALT = 0xA4093822299F31D0L;
+
+	static final long ANT_SALT = 0x082EFA98EC4E6C89L;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	int width;
+
+	int height;
+
+	int cellCount;
+
+	int[] pheromone;
+
+	// bit per cell, set while the cell has pheromone
+	long[] pheromoneCells;
+
+	int[] food;
+
+	// ants of each type in each square, at cell * AntType.COUNT + type
+	int[] antCounts;
+
+	int[] friendlyCount;
+
+	int[] enemyCount; // ants of every enemy type in each square
+
+	boolean[] hidden;
+
+	NeighborTable neighbors;
+
+	// ants in each square, created the first time a square is entered
+	Ant[][] friendly;
+
+	Ant[][] enemies;
+
+	// bit per cell, set when the cell changed since the view last saw it, null when headless
+	long[] dirty;
+
+	JournalRecorder journal; // null unless the run is being recorded
+
+	// running totals, kept up to date by every change instead of scanning the grid
+	long totalFood;
+
+	long totalPheromone;
+
+	int exploredCount; // squares no longer hidden
+
+	IntStack newPheromone; // shards only, squares marked in pheromoneCells after the phase
+
+	long stateHash; // see stateHash() and the class comment
+
+	/***************
+	 *	constructors
+	 **************/
+
+	public ColonyGrid (int width, int height, boolean withView)
+	{
+		this.width = width;
+		this.height = height;
+		cellCount = width * height;
+
+		pheromone = new int[cellCount];
+		pheromoneCells = new long[(cellCount + 63) >>> 6];
+		food = new int[cellCount];
+		antCounts = new int[cellCount * AntType.COUNT];
+		friendlyCount = new int[cellCount];
+		enemyCount = new int[cellCount];
+		hidden = new boolean[cellCount];
+		friendly = new Ant[cellCount][];
+		enemies = new Ant[cellCount][];
+
+		Arrays.fill(hidden, true);
+		neighbors = new NeighborTable(width, height);
+
+		if (withView)
+			dirty = new long[(cellCount + 63) >>> 6];
+	}
+
+	/**
+	 * creates a shard that works on the same squares as a headless grid
+	 * @param shared ColonyGrid whose arrays the shard uses
+	 */
+	ColonyGrid (ColonyGrid shared)
+	{
+		width = shared.width;
+		height = shared.height;
+		cellCount = shared.cellCount;
+
+		pheromone = shared.pheromone;
+		pheromoneCells = shared.pheromoneCells;
+		food = shared.food;
+		antCounts = shared.antCounts;
+		friendlyCount = shared.friendlyCount;
+		enemyCount = shared.enemyCount;
+		hidden = shared.hidden;
+		friendly = shared.friendly;
+		enemies = shared.enemies;
+		neighbors = shared.neighbors;
+
+		newPheromone = new IntStack();
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to get the key of one fact about a square
+	 * @param salt long kind of fact, one of the *_SALT constants
+	 * @param cell int square
+	 * @param value int amount, or ant id, 0 meaning the fact is absent
+	 * @return long key, 0 for value 0 so an empty grid hashes to 0
+	 */
+	static long key(long salt, int cell, int value)
+	{
+		if (value == 0)
+			return 0;
+		// value and cell side by side is one to one, and mix64 is too
+		return XoroshiroRandom.mix64((((long) value << 32) | (cell & 0xFFFFFFFFL)) ^ salt);
+	}
+
+	/**
+	 * method to get the hash of everything in every square
+	 * @return long hash, equal for two grids holding the same things
+	 */
+	public long stateHash()
+	{
+		return stateHash;
+	}
+
+	/**
+	 * method to work the hash out from scratch, after the arrays were filled directly
+	 */
+	void rehash()
+	{
+		long hash = 0;
+		for (int cell = 0; cell < cellCount; cell++)
+		{
+			hash += key(FOOD_SALT, cell, food[cell]);
+			hash += key(PHEROMONE_SALT, cell, pheromone[cell]);
+			if (!hidden[cell])
+				hash += key(REVEALED_SALT, cell, 1);
+			for (int i = 0; i < friendlyCount[cell]; i++)
+				hash += key(ANT_SALT, cell, friendly[cell][i].id + 1);
+			for (int i = 0; i < enemyCount[cell]; i++)
+				hash += key(ANT_SALT, cell, enemies[cell][i].id + 1);
+		}
+		stateHash = hash;
+	} // end rehash()
+
+	public int cell(int x, int y)
+	{
+		return y * width + x;
+	}
+
+	public int xOf(int cell)
+	{
+		return cell % width;
+	}
+
+	public int yOf(int cell)
+	{
+		return cell / width;
+	}
+
+	public void openNode(int cell, RandomSource rand)
+	{
+		reveal(cell);
+
+		// 25% chance that food will have between 500 and 1000
+		if (rand.nextInt(1000) < 250)
+		{
+			addFood(cell, rand.nextInt(501) + 500);
+		}
+	}
+
+	/**
+	 * method to mark a square as explored
+	 * @param cell int square to reveal
+	 */
+	public void reveal(int cell)
+	{
+		if (hidden[cell])
+		{
+			exploredCount++;
+			stateHash += key(REVEALED_SALT, cell, 1);
+		}
+		hidden[cell] = false;
+		markDirty(cell);
+		if (journal != null)
+			journal.reveal(cell);
+	}
+
+	/**
+	 * method to change the food in a square
+	 * @param cell int square to change
+	 * @param amount int units to add, negative to take food away
+	 */
+	public void addFood(int cell, int amount)
+	{
+		stateHash -= key(FOOD_SALT, cell, food[cell]);
+		food[cell] += amount;
+		stateHash += key(FOOD_SALT, cell, food[cell]);
+		totalFood += amount;
+		markDirty(cell);
+		if (journal != null)
+			journal.food(cell, amount);
+	}
+
+	/**
+	 * method to get the number of ants of one type in a square
+	 * @param cell int square to look in
+	 * @param type int AntType tag
+	 * @return int number of ants
+	 */
+	public int count(int cell, int type)
+	{
+		return antCounts[cell * AntType.COUNT + type];
+	}
+
+	public void addAnt(int cell, Ant ant)
+	{
+		if (AntType.IS_ENEMY[ant.type])
+		{
+			enemies[cell] = append(enemies[cell], enemyCount[cell], ant);
+			enemyCount[cell]++;
+		}
+		else
+		{
+			friendly[cell] = append(friendly[cell], friendlyCount[cell], ant);
+			friendlyCount[cell]++;
+		}
+		antCounts[cell * AntType.COUNT + ant.type]++;
+		stateHash += key(ANT_SALT, cell, ant.id + 1);
+		markDirty(cell);
+	}
+
+	public void removeAnt(int cell, Ant ant)
+	{
+		antCounts[cell * AntType.COUNT + ant.type]--;
+		if (AntType.IS_ENEMY[ant.type])
+		{
+			enemyCount[cell]--;
+			swapRemove(enemies[cell], enemyCount[cell], ant);
+		}
+		else
+		{
+			friendlyCount[cell]--;
+			swapRemove(friendly[cell], friendlyCount[cell], ant);
+		}
+		stateHash -= key(ANT_SALT, cell, ant.id + 1);
+		markDirty(cell);
+	}
+
+	public int getFriendlyCount(int cell)
+	{
+		return friendlyCount[cell];
+	}
+
+	public int getEnemyCount(int cell)
+	{
+		return enemyCount[cell];
+	}
+
+	/**
+	 * method to put an ant at the end of a square's occupant array
+	 * @param occupants Ant[] current array, may be null
+	 * @param size int number of ants in the array
+	 * @param ant Ant to add, its cellSlot is set
+	 * @return Ant[] the array holding the ant, grown if it was full
+	 */
+	private static Ant[] append(Ant[] occupants, int size, Ant ant)
+	{
+		if (occupants == null)
+			occupants = new Ant[4];
+		else if (size == occupants.length)
+		{
+			Ant[] old = occupants;
+			occupants = new Ant[old.length * 2];
+			System.arraycopy(old, 0, occupants, 0, size);
+		}
+
+		occupants[size] = ant;
+		ant.cellSlot = size;
+		return occupants;
+	}
+
+	/**
+	 * method to take an ant out of a square's occupant array by moving the
+	 * last ant into its place
+	 * @param occupants Ant[] array holding the ant
+	 * @param last int index of the last ant, the new size of the array
+	 * @param ant Ant to remove
+	 */
+	private static void swapRemove(Ant[] occupants, int last, Ant ant)
+	{
+		Ant moved = occupants[last];
+		occupants[ant.cellSlot] = moved;
+		moved.cellSlot = ant.cellSlot;
+		occupants[last] = null;
+		ant.cellSlot = -1;
+	}
+
+	/**
+	 * method to lay pheromone in a square
+	 * @param cell int square to add to
+	 * @param amount int units to add, must be positive
+	 */
+	public void addPheromone(int cell, int amount)
+	{
+		stateHash -= key(PHEROMONE_SALT, cell, pheromone[cell]);
+		pheromone[cell] += amount;
+		stateHash += key(PHEROMONE_SALT, cell, pheromone[cell]);
+		totalPheromone += amount;
+		if (newPheromone == null)
+			pheromoneCells[cell >>> 6] |= 1L << cell;
+		else if ((pheromoneCells[cell >>> 6] & (1L << cell)) == 0)
+			newPheromone.push(cell);
+		markDirty(cell);
+		if (journal != null)
+			journal.pheromone(cell, amount);
+	}
+
+	/**
+	 * method to halve the pheromone in every square, done once a day
+	 *
+	 * only squares marked as holding pheromone are visited, and a square is
+	 * unmarked once its pheromone reaches zero
+	 */
+	public void decayPheromone()
+	{
+		if (journal != null)
+			journal.decay();
+
+		for (int word = 0; word < pheromoneCells.length; word++)
+		{
+			long bits = pheromoneCells[word];
+			while (bits != 0)
+			{
+				int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+				bits &= bits - 1;
+
+				int level = pheromone[cell] / 2;
+				totalPheromone -= pheromone[cell] - level;
+				stateHash += key(PHEROMONE_SALT, cell, level) - key(PHEROMONE_SALT, cell, pheromone[cell]);
+				pheromone[cell] = level;
+				if (level == 0)
+					pheromoneCells[word] &= ~(1L << cell);
+				markDirty(cell);
+			}
+		}
+	}
+
+	/**
+	 * method to fold a shard's changes into this grid and empty the shard
+	 * @param shard ColonyGrid made from this grid
+	 */
+	void merge(ColonyGrid shard)
+	{
+		totalFood += shard.totalFood;
+		totalPheromone += shard.totalPheromone;
+		exploredCount += shard.exploredCount;
+		stateHash += shard.stateHash;
+		shard.totalFood = 0;
+		shard.totalPheromone = 0;
+		shard.exploredCount = 0;
+		shard.stateHash = 0;
+
+		IntStack marked = shard.newPheromone;
+		for (int i = 0; i < marked.size(); i++)
+			pheromoneCells[marked.get(i) >>> 6] |= 1L << marked.get(i);
+		marked.clear();
+	} // end merge()
+
+	/**
+	 * method to note that a square changed and its view needs redrawing
+	 * @param cell int square that changed
+	 */
+	public void markDirty(int cell)
+	{
+		// nothing to draw when running headless
+		if (dirty != null)
+			dirty[cell >>> 6] |= 1L << cell;
+	}
+
+	/**
+	 * method to note that every square needs redrawing
+	 */
+	public void markAllDirty()
+	{
+		if (dirty == null)
+			return;
+
+		Arrays.fill(dirty, -1L);
+		// bits past the last cell would point outside the grid
+		if ((cellCount & 63) != 0)
+			dirty[dirty.length - 1] = (1L << cellCount) - 1;
+	}
+
+	public void reset()
+	{
+		Arrays.fill(hidden, true);
+		Arrays.fill(pheromone, 0);
+		Arrays.fill(pheromoneCells, 0);
+		Arrays.fill(food, 0);
+		Arrays.fill(antCounts, 0);
+		Arrays.fill(friendlyCount, 0);
+		Arrays.fill(enemyCount, 0);
+		Arrays.fill(friendly, null);
+		Arrays.fill(enemies, null);
+		totalFood = 0;
+		totalPheromone = 0;
+		exploredCount = 0;
+		stateHash = 0;
+
+		// update gui with these defaults
+		markAllDirty();
+	}
+}
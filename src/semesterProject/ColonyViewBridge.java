@@ -0,0 +1,180 @@
+package semesterProject;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.Timer;
+
+import AntSimGUI.AntSimGUI;
+import AntSimGUI.ColonyCanvas;
+
+/**
+ * carries changes from the colony model to the Swing views
+ *
+ * the model never touches a view. when a square changes, ColonyGrid sets
+ * its bit in a dirty bitset. once per frame the engine thread calls
+ * publish, which copies just the dirty squares into a snapshot owned by
+ * this bridge and clears the bits. separately, a Swing timer samples the
+ * snapshot at the gui's own frame rate and pushes whatever changed to the
+ * view, so a square that changes many times between frames is only redrawn
+ * once, Swing is only ever called from its own thread, and a slow repaint
+ * never holds up the engine.
+ *
+ * the views are a single ColonyCanvas that paints every square itself. its
+ * image indices follow the AntType tags, so each square's counts are copied
+ * across as one block.
+ * @author SChmielowski
+ *
+ */
+public class ColonyViewBridge {
+
+	/*************
+	 *	attributes
+	 ************/
+
+	ColonyGrid grid;
+
+	ColonyCanvas view;
+
+	AntSimGUI gui; // receives the time label, may be null
+
+	// snapshot of the last published state, guarded by this bridge's lock
+	int[] shownFood;
+
+	int[] shownPheromone;
+
+	int[] shownCounts;
+
+	boolean[] shownHidden;
+
+	long[] shownDirty;
+
+	String shownTime;
+
+	// true when publish has run since the views last sampled the snapshot
+	AtomicBoolean published = new AtomicBoolean();
+
+	Timer sampler;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	/**
+	 * creates the canvas the grid is drawn on
+	 * @param grid ColonyGrid to show, it must have been created with a view
+	 */
+	public ColonyViewBridge (ColonyGrid grid)
+	{
+		this.grid = grid;
+
+		int cellCount = grid.cellCount;
+		shownFood = new int[cellCount];
+		shownPheromone = new int[cellCount];
+		shownCounts = new int[cellCount * AntType.COUNT];
+		shownHidden = new boolean[cellCount];
+		shownDirty = new long[grid.dirty.length];
+
+		// start with nodes about 2400 pixels across the larger side in total
+		int tileSize = 2400 / Math.max(grid.width, grid.height);
+		view = new ColonyCanvas(grid.width, grid.height, tileSize);
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	public ColonyCanvas getView()
+	{
+		return view;
+	}
+
+	public void setGUI(AntSimGUI gui)
+	{
+		this.gui = gui;
+	}
+
+	/**
+	 * method to start pushing the latest snapshot to the views
+	 * @param framesPerSecond int how often the views are updated
+	 */
+	public void startSampling(int framesPerSecond)
+	{
+		sampler = new Timer(1000 / framesPerSecond, new ActionListener() {
+			public void actionPerformed(ActionEvent e)
+			{
+				if (published.getAndSet(false))
+					apply();
+			}
+		});
+		sampler.start();
+	}
+
+	/**
+	 * method to snapshot every dirty square for the views to pick up
+	 *
+	 * called from the thread that runs the simulation, once per frame
+	 * @param time String for the gui's time label
+	 */
+	public void publish(String time)
+	{
+		long[] dirty = grid.dirty;
+		int types = AntType.COUNT;
+
+		synchronized (this)
+		{
+			for (int word = 0; word < dirty.length; word++)
+			{
+				long bits = dirty[word];
+				if (bits == 0)
+					continue;
+				dirty[word] = 0;
+				shownDirty[word] |= bits;
+
+				while (bits != 0)
+				{
+					int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+
+					shownFood[cell] = grid.food[cell];
+					shownPheromone[cell] = grid.pheromone[cell];
+					shownHidden[cell] = grid.hidden[cell];
+					System.arraycopy(grid.antCounts, cell * types, shownCounts, cell * types, types);
+				}
+			}
+			shownTime = time;
+		}
+		published.set(true);
+	} // end publish()
+
+	/**
+	 * method to push the snapshot of every dirty square to its view
+	 *
+	 * runs on the event dispatch thread
+	 */
+	void apply()
+	{
+		synchronized (this)
+		{
+			for (int word = 0; word < shownDirty.length; word++)
+			{
+				long bits = shownDirty[word];
+				shownDirty[word] = 0;
+
+				while (bits != 0)
+				{
+					int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+					bits &= bits - 1;
+					view.setNode(cell, shownFood[cell], shownPheromone[cell], shownCounts,
+							cell * AntType.COUNT, !shownHidden[cell]);
+				}
+			}
+
+			if (gui != null && shownTime != null)
+				gui.setTime(shownTime);
+		}
+
+		view.repaintChanged();
+	} // end apply()
+}
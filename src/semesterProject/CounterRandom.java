@@ -0,0 +1,84 @@
+package semesterProject;
+
+/**
+ * counter based random numbers, the draws of one ant in one turn
+ *
+ * the n-th number drawn after position(key, stream) is a pure function of
+ * key, stream and n: splitmix64 started from a hash of the key and the
+ * stream. nothing carries over from one position to the next, so an ant's
+ * draws do not depend on which thread runs it or on what any other ant drew
+ * before it.
+ *
+ * the parallel engine uses the turn's key, one draw from the simulation's own
+ * generator that stands in for (seed, turn), as the key and the ant's id as
+ * the stream.
+ * @author SChmielowski
+ *
+ */
+public class CounterRandom implements RandomSource {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	long key;
+
+	long stream;
+
+	long state; // splitmix64 state, advanced by one gamma per draw
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to move to the start of a stream
+	 * @param key long key shared by every stream of a turn
+	 * @param stream long stream within the key, an ant id
+	 */
+	public void position(long key, long stream)
+	{
+		this.key = key;
+		this.stream = stream;
+		state = hash(key, stream);
+	} // end position()
+
+	/**
+	 * method to get the value every stream of a key starts from
+	 *
+	 * also serves as a random priority for the stream that needs no draws
+	 * @param key long key shared by every stream of a turn
+	 * @param stream long stream within the key
+	 * @return long mixed value
+	 */
+	static long hash(long key, long stream)
+	{
+		return XoroshiroRandom.mix64(key ^ XoroshiroRandom.mix64(stream + GOLDEN_GAMMA));
+	} // end hash()
+
+	@Override
+	public long nextLong()
+	{
+		return XoroshiroRandom.mix64(state += GOLDEN_GAMMA);
+	} // end nextLong()
+
+	@Override
+	public long[] getState()
+	{
+		return new long[] {key, stream, state};
+	}
+
+	@Override
+	public void setState(long[] state)
+	{
+		key = state[0];
+		stream = state[1];
+		this.state = state[2];
+	}
+}
@@ -1,9 +1,25 @@
 package semesterProject;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Driver {
 
-	public static void main(String[] args) 
+	public static void main(String[] args) throws IOException
 	{
-		Simulation sim = new Simulation();
+		// optional grid size: Driver [width height], or Driver --restore FILE
+		if (args.length >= 2 && args[0].equals("--restore"))
+		{
+			Simulation sim = new Simulation(false, Checkpoint.load(Paths.get(args[1])));
+		}
+		else if (args.length >= 2)
+		{
+			SimulationConfig config = new SimulationConfig(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+			Simulation sim = new Simulation(false, new XoroshiroRandom(System.nanoTime()), config);
+		}
+		else
+		{
+			Simulation sim = new Simulation();
+		}
 	}
 }
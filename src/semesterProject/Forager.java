@@ -1,23 +1,19 @@
 package semesterProject;
 
-import dataStructures.ArrayList;
-import dataStructures.HashSet;
-import dataStructures.LinkedStack;
-import dataStructures.List;
-import dataStructures.Set;
-import dataStructures.Stack;
+import dataStructures.EpochIntSet;
+import dataStructures.IntStack;
 
 public class Forager extends Ant {
 	
 	/*************
 	 *	attributes
 	 ************/
-	// the actual path home
-	Stack stackHome = new LinkedStack();
+	// the actual path home, as cell ids
+	IntStack stackHome = new IntStack();
 	// to check if they have been in the node already
-	Set setHome = new HashSet();
+	EpochIntSet setHome = new EpochIntSet();
 	
-	Coords lastPos = new Coords(-1, -1);
+	int lastPos = -1; // cell the forager just left, -1 at the start of a run
 		
 	boolean forageMode;
 	
@@ -29,7 +25,7 @@ public class Forager extends Ant {
 	
 	public Forager (Colony colony)
 	{
-		super(colony);
+		super(colony, AntType.FORAGER);
 		forageMode = true;
 		hasFood = false;
 	}
@@ -53,20 +49,18 @@ public class Forager extends Ant {
 		{
 			move(sim.colony);
 			
-			if (sim.colony.map[x][y].food > 0)
+			if (sim.colony.grid.food[cell] > 0)
 				pickUpFood(sim.colony);
 		}
 		else
 		{
 			returnHome(sim.colony);
 		}
-		
-//		System.out.println(id + "has: " + setHome.toString());
 	} // end takeTurn()
 	
 	private void pickUpFood(Colony colony)
 	{
-		colony.map[x][y].food--;
+		colony.grid.addFood(cell, -1);
 		forageMode = false;
 		hasFood = true;
 	}
@@ -74,31 +68,32 @@ public class Forager extends Ant {
 	public void depositFood(Colony colony)
 	{
 		if (hasFood)
-			colony.map[x][y].food++;
+		{
+			colony.grid.addFood(cell, 1);
+			if (cell == colony.queenCell)
+				colony.foodDelivered++;
+		}
 		
 		hasFood = false;
 		forageMode = true;
-		lastPos = new Coords(-1, -1);
+		lastPos = -1;
 		setHome.clear();
 	}
 	
 	private void returnHome(Colony colony)
 	{
+		ColonyGrid grid = colony.grid;
 		if (hasFood)
 		{
-			if(x!=13 && y!=13) 
+			if(grid.xOf(cell)!=colony.queenX && grid.yOf(cell)!=colony.queenY) 
 			{
 				// add 10 pheromone to each node on way back if < 1000
-				if (colony.map[x][y].pheromone < 1000)
-					colony.map[x][y].pheromone+=10;
+				if (grid.pheromone[cell] < 1000)
+					grid.addPheromone(cell, 10);
 			}
 		}	
 			// move to previous node
-			Coords temp = (Coords) stackHome.pop();
-			colony.map[x][y].removeAnt(this);
-			x = temp.getX();
-			y = temp.getY();
-			colony.map[x][y].addAnt(this);
+			moveTo(grid, stackHome.pop());
 			
 			// if ant made it back to queen deposit food if it has it
 			if (stackHome.isEmpty())
@@ -108,115 +103,56 @@ public class Forager extends Ant {
 	@Override
 	void move(Colony colony) 
 	{
-		int tempX = x;
-		int tempY = y;
-		int highestPher = 0;
-		List coordList = new ArrayList();
+		ColonyGrid grid = colony.grid;
+		NeighborTable neighbors = grid.neighbors;
+		int highestPher = -1;
+		int bestDirs = 0; // every direction tied for the most pheromone
 		
-		for (int i = -1; i <= 1; i++)
+		// only revealed squares inside the map are candidates
+		for (int bits = neighbors.openMask(cell, grid.hidden); bits != 0; bits &= bits - 1)
 		{
-			for (int j = -1; j <= 1; j++)
+			int dir = Integer.numberOfTrailingZeros(bits);
+			int next = neighbors.neighbor(cell, dir);
+			
+			// skip node if...
+			if (next == colony.queenCell) // if node is queens square
+				continue;
+			else if (lastPos == next) // if node was previous node
+				continue;
+			else
 			{
-				// skip current node if...
-				if (x == 0 && i == -1) // if node doesn't exist, west side
-					continue;
-				else if (x == 26 && i == 1) // if node doesn't exist, east side
-					continue;
-				else if (y == 0 && j == -1) // if node doesn't exist, north side
-					continue;
-				else if (y == 26 && j == 1) // if node doesn't exist, south side
-					continue;
-				else if (colony.map[x+i][y+j].idX == 14 && colony.map[x+i][y+j].idY == 14) // if node is queens square
-					continue;
-				else if (colony.map[x+i][y+j].isHidden) // if node is hidden
-					continue;
-				else if (i == 0 && j == 0) // if node is current node
-					continue;
-				else if (lastPos.getX() == (x+i) && lastPos.getY() == (y+j)) // if node was previous node
-					continue;
-				else
+				int checkPher = grid.pheromone[next];
+				if (highestPher < checkPher)
 				{
-					int checkPher = colony.map[x+i][y+j].pheromone;
-					if (highestPher < checkPher)
-					{
-						highestPher = checkPher;
-						coordList.clear();
-						tempX = x + i;
-						tempY = y + j;
-					}
-					else if (highestPher == checkPher)
-					{
-						coordList.add(new Coords(x + i, y + j));
-					}
+					highestPher = checkPher;
+					bestDirs = 1 << dir;
+				}
+				else if (highestPher == checkPher)
+				{
+					bestDirs |= 1 << dir;
 				}
 			}
 		}
 		
-		colony.map[x][y].removeAnt(this);
-		lastPos = new Coords(x, y);
+		lastPos = cell;
 		stackHome.push(lastPos);
 		
-		if(!coordList.isEmpty())
+		// pick one of the best squares at random, or stay put if there are none
+		if (bestDirs != 0)
 		{
-			Coords temp = (Coords) coordList.get(Simulation.getRandomNum(coordList.size()));
-			x = temp.getX();
-			y = temp.getY();
+			int dir;
+			if ((bestDirs & (bestDirs - 1)) == 0)
+				dir = Integer.numberOfTrailingZeros(bestDirs);
+			else
+				dir = NeighborTable.randomDirection(bestDirs, colony.rand);
+			moveTo(grid, neighbors.neighbor(cell, dir));
 		}
-		else
-		{
-			x = tempX;
-			y = tempY;
-		}
-
-		colony.map[x][y].addAnt(this);
 		
 		// this checks to see if a node has been visited before on the same food run, if so return home and start again.
-		Coords temp = new Coords(x,y);
-		if (!setHome.add(temp.toString()))
+		if (!setHome.add(cell))
 		{
 			forageMode = false;
 			setHome.clear();
 		}			
 	} // end move()
-	
-	private class Coords
-	{
-		/*************
-		 *	attributes
-		 ************/
-		
-		int x;
-		
-		int y;
-		
-		/***************
-		 *	constructors
-		 **************/
-		
-		public Coords (int inputX, int inputY)
-		{
-			x = inputX;
-			y = inputY;
-		}
-		
-		/**********
-		 *	methods
-		 *********/
-		
-		public int getX()
-		{
-			return x;
-		}
-		
-		public int getY()
-		{
-			return y;
-		}
-		
-		public String toString()
-		{
-			return "(" + (x+1) + ", " + (y+1) + ")";
-		}
-		
-	} // end Coords
-}
\ No newline at end of file
+}
@@ -0,0 +1,239 @@
+package semesterProject;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+
+/**
+ * command line entry point that runs the simulation with no gui
+ *
+ * usage: HeadlessDriver (--turns N | --days N) [--out FILE] [--seed N]
+ *                       [--width N --height N [--queen X Y]]
+ *                       [--restore FILE] [--save FILE]
+ *                       [--journal DIR [--keyframes N]] [--jmx]
+ *                       [--threads N [--tile N]] [--replay DIR] [--hashes FILE]
+ *                       [--telemetry FILE]
+ *
+ * runs started with the same seed are identical. --restore carries on from a
+ * checkpoint instead of starting a new colony, and --save writes one when the
+ * run ends. --journal records every turn for JournalReplayer, with a keyframe
+ * every N turns, and --replay plays such a journal back instead of running
+ * the ants. --jmx registers the run's SimulationMetrics so it can be watched
+ * in jconsole. --threads runs the ants on a ParallelTurnEngine with N workers
+ * and tiles of the given size.
+ *
+ * one line of comma separated stats is written per simulated day, to the file
+ * given by --out or to standard out when it is missing or "-". --hashes
+ * writes the colony's state hash after every turn, one "turn,hash" line each,
+ * so the first line two such files differ on is the turn two runs, engines
+ * or builds, or a run and its replay, first went different ways.
+ * --telemetry records a row of colony numbers after every turn with a
+ * TelemetryRecorder, as csv if FILE ends in .csv and columnar otherwise.
+ * @author SChmielowski
+ *
+ */
+public class HeadlessDriver {
+
+	public static void main(String[] args) throws IOException
+	{
+		// no frame is ever created, but make sure awt agrees
+		System.setProperty("java.awt.headless", "true");
+
+		int turns = -1;
+		String out = "-";
+		long seed = System.nanoTime();
+		int width = SimulationConfig.DEFAULT_SIZE;
+		int height = SimulationConfig.DEFAULT_SIZE;
+		int queenX = -1;
+		int queenY = -1;
+		String restore = null;
+		String save = null;
+		String journal = null;
+		int keyframes = JournalRecorder.DEFAULT_KEYFRAME_INTERVAL;
+		boolean jmx = false;
+		int threads = 0;
+		int tileSize = ParallelTurnEngine.DEFAULT_TILE_SIZE;
+		String replay = null;
+		String hashes = null;
+		String telemetry = null;
+
+		for (int i = 0; i < args.length; i++)
+		{
+			if (args[i].equals("--turns") && i + 1 < args.length)
+				turns = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--days") && i + 1 < args.length)
+				turns = Integer.parseInt(args[++i]) * 10;
+			else if (args[i].equals("--out") && i + 1 < args.length)
+				out = args[++i];
+			else if (args[i].equals("--seed") && i + 1 < args.length)
+				seed = Long.parseLong(args[++i]);
+			else if (args[i].equals("--width") && i + 1 < args.length)
+				width = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--height") && i + 1 < args.length)
+				height = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--restore") && i + 1 < args.length)
+				restore = args[++i];
+			else if (args[i].equals("--save") && i + 1 < args.length)
+				save = args[++i];
+			else if (args[i].equals("--journal") && i + 1 < args.length)
+				journal = args[++i];
+			else if (args[i].equals("--keyframes") && i + 1 < args.length)
+				keyframes = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--jmx"))
+				jmx = true;
+			else if (args[i].equals("--threads") && i + 1 < args.length)
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--tile") && i + 1 < args.length)
+				tileSize = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--replay") && i + 1 < args.length)
+				replay = args[++i];
+			else if (args[i].equals("--hashes") && i + 1 < args.length)
+				hashes = args[++i];
+			else if (args[i].equals("--telemetry") && i + 1 < args.length)
+				telemetry = args[++i];
+			else if (args[i].equals("--queen") && i + 2 < args.length)
+			{
+				queenX = Integer.parseInt(args[++i]);
+				queenY = Integer.parseInt(args[++i]);
+			}
+			else
+			{
+				usage();
+				return;
+			}
+		}
+
+		// a replay only rebuilds the squares, so there is no full state to save or count
+		if (turns < 0 || (replay != null && (save != null || telemetry != null)))
+		{
+			usage();
+			return;
+		}
+
+		PrintWriter writer;
+		if (out.equals("-"))
+			writer = new PrintWriter(new OutputStreamWriter(System.out));
+		else
+			writer = new PrintWriter(new FileWriter(out));
+
+		SimulationConfig config;
+		if (queenX < 0)
+			config = new SimulationConfig(width, height);
+		else
+			config = new SimulationConfig(width, height, queenX, queenY);
+
+		Simulation sim;
+		if (replay != null)
+			sim = new Simulation(true, new JournalReplayer(Paths.get(replay)));
+		else if (restore != null)
+			sim = new Simulation(true, Checkpoint.load(Paths.get(restore)));
+		else
+			sim = new Simulation(true, new XoroshiroRandom(seed), config);
+
+		if (jmx)
+			SimulationMetrics.register(sim);
+		if (threads > 0)
+			sim.setParallelism(threads, tileSize);
+
+		JournalRecorder recorder = null;
+		if (journal != null)
+			recorder = JournalRecorder.start(sim, Paths.get(journal), keyframes);
+
+		TelemetryRecorder telemetryRecorder = null;
+		if (telemetry != null)
+			telemetryRecorder = TelemetryRecorder.start(sim, Paths.get(telemetry));
+
+		PrintWriter hashWriter = null;
+		if (hashes != null)
+			hashWriter = new PrintWriter(new FileWriter(hashes));
+
+		long start = System.nanoTime();
+		int ran = run(sim, turns, writer, hashWriter);
+		if (hashWriter != null)
+			hashWriter.close();
+		if (recorder != null)
+			recorder.close();
+		if (telemetryRecorder != null)
+		{
+			telemetryRecorder.close();
+			if (telemetryRecorder.getDropped() > 0)
+				System.err.println("telemetry dropped " + telemetryRecorder.getDropped() + " turns");
+		}
+		long elapsed = System.nanoTime() - start;
+
+		if (save != null)
+		{
+			long saveStart = System.nanoTime();
+			Checkpoint.save(sim, Paths.get(save));
+			System.err.println("saved " + sim.colony.ants.size() + " ants to " + save + " in "
+					+ ((System.nanoTime() - saveStart) / 1000000) + " ms");
+		}
+
+		writer.flush();
+		if (!out.equals("-"))
+			writer.close();
+
+		// what the run started from and the tile size pin it down, whatever the thread count
+		String from;
+		if (replay != null)
+			from = "replayed from " + replay;
+		else if (restore != null)
+			from = "restored from " + restore;
+		else
+			from = "seed " + seed;
+		System.err.println("ran " + ran + " turns in " + (elapsed / 1000000) + " ms, " + from
+				+ (threads > 0 ? ", " + threads + " threads, tile " + tileSize : ""));
+	}
+
+	/**
+	 * method to run a headless simulation and report on it once a day
+	 * @param sim Simulation to run
+	 * @param turns int highest number of turns to run
+	 * @param writer PrintWriter that receives the daily stats
+	 * @param hashes PrintWriter that receives the state hash after each turn, may be null
+	 * @return int number of turns actually run
+	 */
+	static int run(Simulation sim, int turns, PrintWriter writer, PrintWriter hashes)
+	{
+		writer.println("year,day,turn,ants,queenFood");
+
+		int ran = 0;
+		while (ran < turns && sim.isQueenAlive())
+		{
+			// run up to the end of the current day
+			int chunk = Math.min(turns - ran, 10 - sim.turn % 10);
+			if (hashes == null)
+				ran += sim.runTurns(chunk);
+			else
+			{
+				for (int i = 0; i < chunk && sim.runTurns(1) == 1; i++)
+				{
+					ran++;
+					hashes.println(sim.totalTurns + "," + String.format("%016x", sim.getStateHash()));
+				}
+			}
+			report(sim, writer);
+		}
+
+		if (!sim.isQueenAlive())
+			writer.println("# queen died, " + sim.getTime());
+
+		return ran;
+	} // end run()
+
+	private static void report(Simulation sim, PrintWriter writer)
+	{
+		writer.println(sim.year + "," + sim.day + "," + sim.turn + ","
+				+ sim.colony.ants.size() + "," + sim.colony.grid.food[sim.colony.queenCell]);
+	} // end report()
+
+	private static void usage()
+	{
+		System.err.println("usage: HeadlessDriver (--turns N | --days N) [--out FILE] [--seed N] "
+				+ "[--width N --height N [--queen X Y]] [--restore FILE] [--save FILE] "
+				+ "[--journal DIR [--keyframes N]] [--jmx] [--threads N [--tile N]] [--replay DIR] "
+				+ "[--hashes FILE] [--telemetry FILE]");
+	} // end usage()
+}
@@ -0,0 +1,460 @@
+package semesterProject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * records every change a simulation makes, turn by turn, to an append-only journal
+ *
+ * while attached, the grid and colony report each ant move, spawn and death,
+ * every change to food or pheromone, the daily pheromone decay and each
+ * square that is revealed. the changes of one turn become one record in
+ * journal.bin, and every keyframeInterval turns a Checkpoint is written next
+ * to it as keyframe-TURN.ants. JournalReplayer starts from the nearest
+ * keyframe and applies records to rebuild any turn.
+ *
+ * numbers are varints, 7 bits a byte with the high bit set on all but the
+ * last byte. each change starts with a varint holding its kind in the low 3
+ * bits. squares are given as the zigzag encoded difference from the last
+ * square mentioned in the same turn and a move as the difference from where
+ * the ant was, so most changes take two to four bytes.
+ *
+ * records are gathered into blocks on the simulation thread and handed to a
+ * writer thread, which does all the file output. spent blocks come back for
+ * reuse, so recording allocates nothing once it is warmed up.
+ *
+ * layout of journal.bin:
+ *
+ *		int magic "ANTJ", int version, int keyframe interval, long first turn
+ *		per turn: varint length, then the changes
+ *			MOVE		slot, zigzag cell difference
+ *			SPAWN		type, zigzag cell
+ *			DEATH		slot
+ *			FOOD		zigzag cell, zigzag amount
+ *			PHEROMONE	zigzag cell, varint amount
+ *			DECAY		nothing
+ *			REVEAL		zigzag cell
+ * @author SChmielowski
+ *
+ */
+public class JournalRecorder {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final int MAGIC = 0x414E544A; // "ANTJ"
+
+	static final int VERSION = 1;
+
+	static final String JOURNAL_FILE = "journal.bin";
+
+	static final int HEADER_SIZE = 20;
+
+	static final int DEFAULT_KEYFRAME_INTERVAL = 1000;
+
+	// size a block is sent to the writer at
+	static final int BLOCK_SIZE = 1 << 16;
+
+	// blocks waiting for the writer before the simulation has to wait too
+	static final int QUEUE_LENGTH = 32;
+
+	// kinds of change
+	static final int MOVE = 0;
+
+	static final int SPAWN = 1;
+
+	static final int DEATH = 2;
+
+	static final int FOOD = 3;
+
+	static final int PHEROMONE = 4;
+
+	static final int DECAY = 5;
+
+	static final int REVEAL = 6;
+
+	static final int KIND_BITS = 3;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	Path dir;
+
+	int keyframeInterval;
+
+	ColonyGrid grid;
+
+	// changes of the turn being recorded
+	byte[] turnBytes = new byte[4096];
+
+	int turnLength;
+
+	int lastCell; // last square mentioned this turn
+
+	// finished turns waiting to be sent to the writer
+	Block block;
+
+	BlockingQueue<Block> full = new ArrayBlockingQueue<Block>(QUEUE_LENGTH);
+
+	BlockingQueue<Block> spare = new ArrayBlockingQueue<Block>(QUEUE_LENGTH + 2);
+
+	Thread writer;
+
+	volatile IOException failure;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	private JournalRecorder (Path dir, int keyframeInterval, ColonyGrid grid)
+	{
+		this.dir = dir;
+		this.keyframeInterval = keyframeInterval;
+		this.grid = grid;
+		block = new Block(BLOCK_SIZE);
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to start recording a simulation from its current turn
+	 * @param sim Simulation to record, must not be taking a turn
+	 * @param dir Path of the directory to write the journal and keyframes into
+	 * @param keyframeInterval int turns between keyframes
+	 * @return JournalRecorder that must be closed when the run ends
+	 * @throws IOException if the directory or the first keyframe cannot be written
+	 */
+	public static JournalRecorder start(Simulation sim, Path dir, int keyframeInterval) throws IOException
+	{
+		if (keyframeInterval < 1)
+			throw new IllegalArgumentException("keyframe interval must be positive");
+
+		Files.createDirectories(dir);
+		// keyframes of an earlier recording would be taken for this one's by the replayer
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "keyframe-*.ants"))
+		{
+			for (Path file : files)
+				Files.delete(file);
+		}
+		final FileChannel channel = FileChannel.open(dir.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(keyframeInterval);
+		header.putLong(sim.totalTurns);
+		header.flip();
+		while (header.hasRemaining())
+			channel.write(header);
+		Checkpoint.save(sim, keyframePath(dir, sim.totalTurns));
+
+		final JournalRecorder recorder = new JournalRecorder(dir, keyframeInterval, sim.colony.grid);
+		recorder.writer = new Thread("journal writer") {
+			public void run()
+			{
+				recorder.drain(channel);
+			}
+		};
+		recorder.writer.setDaemon(true);
+		recorder.writer.start();
+
+		sim.colony.grid.journal = recorder;
+		return recorder;
+	} // end start()
+
+	static Path keyframePath(Path dir, long turn)
+	{
+		return dir.resolve(String.format("keyframe-%012d.ants", turn));
+	} // end keyframePath()
+
+	// changes, called on the simulation thread
+
+	void move(int slot, int from, int to)
+	{
+		putVarint(slot << KIND_BITS | MOVE);
+		putVarint(zigzag(to - from));
+	}
+
+	void spawn(int type, int cell)
+	{
+		putVarint(type << KIND_BITS | SPAWN);
+		putCell(cell);
+	}
+
+	void death(int slot)
+	{
+		putVarint(slot << KIND_BITS | DEATH);
+	}
+
+	void food(int cell, int amount)
+	{
+		putVarint(FOOD);
+		putCell(cell);
+		putVarint(zigzag(amount));
+	}
+
+	void pheromone(int cell, int amount)
+	{
+		putVarint(PHEROMONE);
+		putCell(cell);
+		putVarint(amount);
+	}
+
+	void decay()
+	{
+		putVarint(DECAY);
+	}
+
+	void reveal(int cell)
+	{
+		putVarint(REVEAL);
+		putCell(cell);
+	}
+
+	/**
+	 * method to close off the current turn's record
+	 *
+	 * called by the simulation at the end of every turn
+	 * @param sim Simulation being recorded
+	 */
+	void endTurn(Simulation sim)
+	{
+		block.ensure(turnLength + 5);
+		block.length = writeVarint(block.bytes, block.length, turnLength);
+		System.arraycopy(turnBytes, 0, block.bytes, block.length, turnLength);
+		block.length += turnLength;
+		turnLength = 0;
+		lastCell = 0;
+
+		if (block.length >= BLOCK_SIZE)
+			send();
+
+		if (sim.totalTurns % keyframeInterval == 0)
+			keyframe(sim);
+	} // end endTurn()
+
+	/**
+	 * method to serialize a keyframe in memory and queue it for the writer
+	 */
+	private void keyframe(Simulation sim)
+	{
+		send();
+		try
+		{
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			Checkpoint.save(sim, Channels.newChannel(bytes));
+
+			Block frame = new Block(0);
+			frame.bytes = bytes.toByteArray();
+			frame.length = frame.bytes.length;
+			frame.keyframe = keyframePath(dir, sim.totalTurns);
+			queue(frame);
+		}
+		catch (IOException e)
+		{
+			// writing to memory does not fail
+			throw new IllegalStateException(e);
+		}
+	} // end keyframe()
+
+	/**
+	 * method to stop recording, wait for everything to reach the disk and close the journal
+	 * @throws IOException if anything could not be written
+	 */
+	public void close() throws IOException
+	{
+		if (grid.journal == this)
+			grid.journal = null;
+
+		try
+		{
+			send();
+			queue(new Block(0)); // an empty block tells the writer to stop
+		}
+		catch (IllegalStateException e)
+		{
+			// a writer that failed has already stopped, its IOException is thrown below
+			if (failure == null)
+				throw e;
+		}
+		try
+		{
+			writer.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		if (failure != null)
+			throw failure;
+	} // end close()
+
+	/**
+	 * method to hand the current block to the writer and pick up a spare one
+	 */
+	private void send()
+	{
+		if (block.length == 0)
+			return;
+
+		queue(block);
+		block = spare.poll();
+		if (block == null)
+			block = new Block(BLOCK_SIZE);
+	} // end send()
+
+	private void queue(Block next)
+	{
+		if (failure != null)
+			throw new IllegalStateException("journal writer failed", failure);
+
+		try
+		{
+			full.put(next);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while recording", e);
+		}
+	} // end queue()
+
+	/**
+	 * method run by the writer thread, writes blocks until the empty one arrives
+	 */
+	private void drain(FileChannel channel)
+	{
+		try
+		{
+			while (true)
+			{
+				Block next = full.take();
+				if (next.length == 0)
+					break;
+
+				if (next.keyframe != null)
+					Files.write(next.keyframe, next.bytes);
+				else
+				{
+					ByteBuffer buffer = ByteBuffer.wrap(next.bytes, 0, next.length);
+					while (buffer.hasRemaining())
+						channel.write(buffer);
+					next.length = 0;
+					spare.offer(next);
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			failure = e;
+			// keep taking blocks so the simulation is never stuck waiting
+			full.clear();
+		}
+		catch (InterruptedException e)
+		{
+			failure = new IOException("journal writer interrupted", e);
+		}
+		finally
+		{
+			try
+			{
+				channel.close();
+			}
+			catch (IOException e)
+			{
+				if (failure == null)
+					failure = e;
+			}
+		}
+	} // end drain()
+
+	private void putCell(int cell)
+	{
+		putVarint(zigzag(cell - lastCell));
+		lastCell = cell;
+	}
+
+	private void putVarint(int value)
+	{
+		if (turnLength + 5 > turnBytes.length)
+		{
+			byte[] old = turnBytes;
+			turnBytes = new byte[old.length * 2];
+			System.arraycopy(old, 0, turnBytes, 0, turnLength);
+		}
+		turnLength = writeVarint(turnBytes, turnLength, value);
+	}
+
+	/**
+	 * method to write an int 7 bits at a time, lowest bits first
+	 * @param dest byte[] with room for 5 more bytes
+	 * @param pos int index to write at
+	 * @param value int value, treated as unsigned
+	 * @return int index after the last byte written
+	 */
+	static int writeVarint(byte[] dest, int pos, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			dest[pos++] = (byte) (value | 0x80);
+			value >>>= 7;
+		}
+		dest[pos++] = (byte) value;
+		return pos;
+	}
+
+	/**
+	 * method to fold the sign into the lowest bit so small negatives stay short
+	 */
+	static int zigzag(int value)
+	{
+		return (value << 1) ^ (value >> 31);
+	}
+
+	static int unzigzag(int value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * bytes on their way to the writer, part of the journal or a whole keyframe
+	 */
+	static class Block
+	{
+		byte[] bytes;
+
+		int length;
+
+		Path keyframe; // null for journal bytes
+
+		Block (int capacity)
+		{
+			bytes = new byte[capacity];
+		}
+
+		void ensure(int more)
+		{
+			if (length + more > bytes.length)
+			{
+				byte[] old = bytes;
+				bytes = new byte[Math.max(length + more, old.length * 2)];
+				System.arraycopy(old, 0, bytes, 0, length);
+			}
+		}
+	} // end Block
+}
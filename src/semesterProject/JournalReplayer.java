@@ -0,0 +1,341 @@
+package semesterProject;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * plays back a journal written by JournalRecorder
+ *
+ * usage: JournalReplayer DIR [--from TURN]
+ *
+ * any turn is rebuilt by restoring the nearest keyframe at or before it and
+ * applying the recorded changes of the turns after that. applying a record
+ * only moves, adds and removes ants and changes food and pheromone, no ant
+ * decides anything, so playing a journal is much faster than running the
+ * simulation again. the replay is shown in the usual gui, where Run, Step,
+ * Pause and the speed buttons play it back and Reset goes back to the start.
+ *
+ * the squares, counts and time are rebuilt exactly. ages and forager paths
+ * are only as fresh as the last keyframe, so a replay cannot be saved.
+ * @author SChmielowski
+ *
+ */
+public class JournalReplayer {
+
+	/*************
+	 *	attributes
+	 ************/
+
+	Path dir;
+
+	SimulationConfig config;
+
+	int keyframeInterval;
+
+	long firstTurn; // turn the journal starts after
+
+	long startTurn; // turn shown when the gui opens
+
+	// start of each turn's record in the journal, turn firstTurn + 1 first
+	long[] offsets = new long[1024];
+
+	int[] lengths = new int[1024];
+
+	int turnCount;
+
+	TreeMap<Long, Path> keyframes = new TreeMap<Long, Path>();
+
+	FileChannel channel;
+
+	ByteBuffer record = ByteBuffer.allocate(4096);
+
+	/***************
+	 *	constructors
+	 **************/
+
+	/**
+	 * opens a journal and indexes its turns and keyframes
+	 * @param dir Path of the directory the recorder wrote to
+	 * @throws IOException if the journal is missing or damaged
+	 */
+	public JournalReplayer (Path dir) throws IOException
+	{
+		this.dir = dir;
+		Path journal = dir.resolve(JournalRecorder.JOURNAL_FILE);
+
+		try (InputStream stream = Files.newInputStream(journal);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16)))
+		{
+			if (in.readInt() != JournalRecorder.MAGIC)
+				throw new IOException(journal + " is not a journal");
+			int version = in.readInt();
+			if (version != JournalRecorder.VERSION)
+				throw new IOException(journal + " is journal version " + version
+						+ ", expected " + JournalRecorder.VERSION);
+			keyframeInterval = in.readInt();
+			firstTurn = in.readLong();
+
+			// note where every complete record starts, a cut off last record is left out
+			long offset = JournalRecorder.HEADER_SIZE;
+			while (true)
+			{
+				int length;
+				int lengthBytes;
+				try
+				{
+					length = 0;
+					lengthBytes = 0;
+					int b;
+					do
+					{
+						b = in.readUnsignedByte();
+						length |= (b & 0x7F) << (7 * lengthBytes++);
+					}
+					while ((b & 0x80) != 0);
+				}
+				catch (EOFException e)
+				{
+					break;
+				}
+
+				offset += lengthBytes;
+				if (in.skipBytes(length) < length)
+					break;
+				addTurn(offset, length);
+				offset += length;
+			}
+		}
+
+		// a keyframe left over from another recording in the same directory is not ours
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "keyframe-*.ants"))
+		{
+			for (Path file : files)
+			{
+				String name = file.getFileName().toString();
+				long turn;
+				try
+				{
+					turn = Long.parseLong(name.substring(9, name.length() - 5));
+				}
+				catch (NumberFormatException e)
+				{
+					continue;
+				}
+				if (turn == firstTurn || (hasTurn(turn) && turn % keyframeInterval == 0))
+					keyframes.put(turn, file);
+			}
+		}
+		if (!keyframes.containsKey(firstTurn))
+			throw new IOException(dir + " has no keyframe for turn " + firstTurn);
+
+		config = Checkpoint.load(keyframes.get(firstTurn)).getConfig();
+		startTurn = firstTurn;
+		channel = FileChannel.open(journal, StandardOpenOption.READ);
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 1 && !(args.length == 3 && args[1].equals("--from")))
+		{
+			System.err.println("usage: JournalReplayer DIR [--from TURN]");
+			return;
+		}
+
+		JournalReplayer replayer = new JournalReplayer(Paths.get(args[0]));
+		if (args.length == 3)
+			replayer.startTurn = Long.parseLong(args[2]);
+		new Simulation(false, replayer);
+	}
+
+	public SimulationConfig getConfig()
+	{
+		return config;
+	}
+
+	/**
+	 * method to get the last turn the journal covers
+	 * @return long turn count after the last complete record
+	 */
+	public long lastTurn()
+	{
+		return firstTurn + turnCount;
+	}
+
+	/**
+	 * method to check if a turn can be replayed
+	 * @param turn long turn count after the turn is taken
+	 * @return boolean true if the journal holds that turn
+	 */
+	boolean hasTurn(long turn)
+	{
+		return turn > firstTurn && turn <= lastTurn();
+	}
+
+	/**
+	 * method to rebuild the colony as it was after a given turn
+	 * @param sim Simulation to rebuild into
+	 * @param turn long turn to go to, kept within the journal
+	 * @throws IOException if the keyframe or journal cannot be read
+	 */
+	public void seek(Simulation sim, long turn) throws IOException
+	{
+		turn = Math.max(firstTurn, Math.min(lastTurn(), turn));
+		Map.Entry<Long, Path> keyframe = keyframes.floorEntry(turn);
+
+		sim.colony.resetColony();
+		Checkpoint.load(keyframe.getValue()).restore(sim);
+		while (sim.totalTurns < turn)
+			replayTurn(sim);
+		sim.publishView();
+	} // end seek()
+
+	/**
+	 * method to apply the next recorded turn, called in place of Simulation.takeTurn
+	 * @param sim Simulation to apply the turn to
+	 */
+	void replayTurn(Simulation sim)
+	{
+		long next = sim.totalTurns + 1;
+		if (!hasTurn(next))
+			return;
+
+		ByteBuffer in = read((int) (next - firstTurn - 1));
+		sim.advanceClock();
+
+		Colony colony = sim.colony;
+		ColonyGrid grid = colony.grid;
+		int lastCell = 0;
+
+		while (in.hasRemaining())
+		{
+			int head = readVarint(in);
+			int kind = head & ((1 << JournalRecorder.KIND_BITS) - 1);
+			int value = head >>> JournalRecorder.KIND_BITS;
+
+			if (kind == JournalRecorder.MOVE)
+			{
+				Ant ant = colony.ants.get(value);
+				ant.moveTo(grid, ant.cell + JournalRecorder.unzigzag(readVarint(in)));
+			}
+			else if (kind == JournalRecorder.SPAWN)
+			{
+				lastCell += JournalRecorder.unzigzag(readVarint(in));
+				Ant ant;
+				try
+				{
+					ant = Checkpoint.newAnt(value, colony);
+				}
+				catch (IOException e)
+				{
+					throw new IllegalStateException("journal is damaged", e);
+				}
+				ant.cell = lastCell;
+				colony.addAnt(ant);
+			}
+			else if (kind == JournalRecorder.DEATH)
+			{
+				colony.removeAnt(colony.ants.get(value));
+			}
+			else if (kind == JournalRecorder.FOOD)
+			{
+				lastCell += JournalRecorder.unzigzag(readVarint(in));
+				grid.addFood(lastCell, JournalRecorder.unzigzag(readVarint(in)));
+			}
+			else if (kind == JournalRecorder.PHEROMONE)
+			{
+				lastCell += JournalRecorder.unzigzag(readVarint(in));
+				grid.addPheromone(lastCell, readVarint(in));
+			}
+			else if (kind == JournalRecorder.DECAY)
+			{
+				grid.decayPheromone();
+			}
+			else if (kind == JournalRecorder.REVEAL)
+			{
+				lastCell += JournalRecorder.unzigzag(readVarint(in));
+				grid.reveal(lastCell);
+			}
+			else
+				throw new IllegalStateException("journal has unknown change " + kind + " in turn " + next);
+		}
+	} // end replayTurn()
+
+	/**
+	 * method to read one turn's record from the journal
+	 * @param index int turn's position in the journal, 0 for the first
+	 * @return ByteBuffer holding just the record
+	 */
+	private ByteBuffer read(int index)
+	{
+		int length = lengths[index];
+		if (record.capacity() < length)
+			record = ByteBuffer.allocate(Math.max(length, record.capacity() * 2));
+
+		record.clear();
+		record.limit(length);
+		try
+		{
+			long position = offsets[index];
+			while (record.hasRemaining())
+			{
+				int read = channel.read(record, position + record.position());
+				if (read < 0)
+					throw new EOFException("journal ended inside turn " + (firstTurn + index + 1));
+			}
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException("could not read the journal", e);
+		}
+		record.flip();
+		return record;
+	} // end read()
+
+	private void addTurn(long offset, int length)
+	{
+		if (turnCount == offsets.length)
+		{
+			long[] oldOffsets = offsets;
+			offsets = new long[oldOffsets.length * 2];
+			System.arraycopy(oldOffsets, 0, offsets, 0, turnCount);
+
+			int[] oldLengths = lengths;
+			lengths = new int[oldLengths.length * 2];
+			System.arraycopy(oldLengths, 0, lengths, 0, turnCount);
+		}
+		offsets[turnCount] = offset;
+		lengths[turnCount] = length;
+		turnCount++;
+	} // end addTurn()
+
+	private static int readVarint(ByteBuffer in)
+	{
+		int value = 0;
+		int shift = 0;
+		int b;
+		do
+		{
+			b = in.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	} // end readVarint()
+}
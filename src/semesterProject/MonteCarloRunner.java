@@ -0,0 +1,287 @@
+package semesterProject;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * runs many independent headless simulations across all cores and reports
+ * how long the queen survives, the peak population and the food delivered
+ *
+ * usage: MonteCarloRunner [--runs N] [--threads N] [--seed N] [--max-days N]
+ *                         [--min-runs N] [--precision P] [--width N --height N]
+ *
+ * run i is seeded from the base seed and i, and results are folded in in run
+ * order, so the same arguments always stop after the same runs with the same
+ * numbers no matter how many threads were used. runs stop early once the 95%
+ * confidence interval for queen survival is within +/- precision of its mean.
+ * @author SChmielowski
+ *
+ */
+public class MonteCarloRunner {
+
+	/*************
+	 *	constants
+	 ************/
+
+	// z score for a two sided 95% confidence interval
+	static final double Z_95 = 1.96;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	int maxRuns = 10000;
+
+	int minRuns = 30;
+
+	int threads = Runtime.getRuntime().availableProcessors();
+
+	long seed = 1;
+
+	int maxDays = 365 * 20;
+
+	double precision = 0.01; // relative half width of the survival interval
+
+	int width = SimulationConfig.DEFAULT_SIZE;
+
+	int height = SimulationConfig.DEFAULT_SIZE;
+
+	RunningStat survivalDays = new RunningStat();
+
+	RunningStat peakPopulation = new RunningStat();
+
+	RunningStat foodDelivered = new RunningStat();
+
+	/**********
+	 *	methods
+	 *********/
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		MonteCarloRunner runner = new MonteCarloRunner();
+		for (int i = 0; i < args.length; i++)
+		{
+			if (i + 1 >= args.length)
+			{
+				usage();
+				return;
+			}
+
+			if (args[i].equals("--runs"))
+				runner.maxRuns = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--threads"))
+				runner.threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--seed"))
+				runner.seed = Long.parseLong(args[++i]);
+			else if (args[i].equals("--max-days"))
+				runner.maxDays = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--min-runs"))
+				runner.minRuns = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--precision"))
+				runner.precision = Double.parseDouble(args[++i]);
+			else if (args[i].equals("--width"))
+				runner.width = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--height"))
+				runner.height = Integer.parseInt(args[++i]);
+			else
+			{
+				usage();
+				return;
+			}
+		}
+
+		long start = System.nanoTime();
+		runner.run();
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println(runner.report());
+		System.out.printf("%.1f colony-years in %.1f s on %d threads%n",
+				runner.survivalDays.sum / 365.0, elapsed / 1e9, runner.threads);
+	}
+
+	/**
+	 * method to run simulations until the survival interval is tight enough
+	 * or maxRuns have finished
+	 * @return int number of runs folded into the results
+	 */
+	public int run() throws InterruptedException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ExecutorCompletionService<RunResult> completion = new ExecutorCompletionService<RunResult>(pool);
+
+		// keep every thread busy with a couple of runs queued behind it
+		int window = threads * 2;
+		RunResult[] pending = new RunResult[maxRuns];
+		int submitted = 0;
+		int folded = 0;
+
+		try
+		{
+			while (submitted < maxRuns && submitted < window)
+				submit(completion, submitted++);
+
+			while (folded < submitted)
+			{
+				RunResult result = completion.take().get();
+				pending[result.run] = result;
+
+				// fold finished runs in order so the stopping point is deterministic
+				while (folded < submitted && pending[folded] != null)
+				{
+					add(pending[folded]);
+					pending[folded] = null;
+					folded++;
+
+					if (isPreciseEnough())
+						return folded;
+				}
+
+				while (submitted < maxRuns && submitted - folded < window)
+					submit(completion, submitted++);
+			}
+		}
+		catch (ExecutionException e)
+		{
+			throw new RuntimeException("simulation run failed", e.getCause());
+		}
+		finally
+		{
+			pool.shutdownNow();
+		}
+		return folded;
+	} // end run()
+
+	private void submit(ExecutorCompletionService<RunResult> completion, final int run)
+	{
+		final long runSeed = XoroshiroRandom.mix64(seed + run * 0x9E3779B97F4A7C15L);
+		final SimulationConfig config = new SimulationConfig(width, height);
+		completion.submit(() -> runOnce(run, runSeed, config, maxDays));
+	} // end submit()
+
+	/**
+	 * method to run one headless simulation until the queen dies or maxDays pass
+	 * @param run int index of this run
+	 * @param runSeed long seed for this run
+	 * @param config SimulationConfig for the grid
+	 * @param maxDays int days after which the run is cut off
+	 * @return RunResult of the run
+	 */
+	static RunResult runOnce(int run, long runSeed, SimulationConfig config, int maxDays)
+	{
+		Simulation sim = new Simulation(true, new XoroshiroRandom(runSeed), config);
+		sim.runTurns(maxDays * 10);
+
+		RunResult result = new RunResult();
+		result.run = run;
+		result.survivalDays = sim.totalTurns / 10.0;
+		result.peakPopulation = sim.colony.peakPopulation;
+		result.foodDelivered = sim.colony.foodDelivered;
+		return result;
+	} // end runOnce()
+
+	private void add(RunResult result)
+	{
+		survivalDays.add(result.survivalDays);
+		peakPopulation.add(result.peakPopulation);
+		foodDelivered.add(result.foodDelivered);
+	} // end add()
+
+	private boolean isPreciseEnough()
+	{
+		return survivalDays.count >= minRuns
+				&& survivalDays.halfWidth() <= precision * Math.abs(survivalDays.mean);
+	} // end isPreciseEnough()
+
+	/**
+	 * method to get the aggregated results
+	 * @return String with mean, standard deviation and 95% interval per metric
+	 */
+	public String report()
+	{
+		return "runs: " + survivalDays.count + "\n"
+				+ survivalDays.format("queen survival (days)") + "\n"
+				+ peakPopulation.format("peak population") + "\n"
+				+ foodDelivered.format("food delivered");
+	} // end report()
+
+	private static void usage()
+	{
+		System.err.println("usage: MonteCarloRunner [--runs N] [--threads N] [--seed N] [--max-days N] "
+				+ "[--min-runs N] [--precision P] [--width N --height N]");
+	} // end usage()
+
+	/**
+	 * result of a single run
+	 */
+	static class RunResult
+	{
+		int run;
+
+		double survivalDays;
+
+		double peakPopulation;
+
+		double foodDelivered;
+	} // end RunResult
+
+	/**
+	 * running mean and variance using Welford's method
+	 */
+	static class RunningStat
+	{
+		/*************
+		 *	attributes
+		 ************/
+
+		long count;
+
+		double mean;
+
+		double m2; // sum of squared distances from the mean
+
+		double sum;
+
+		double min = Double.POSITIVE_INFINITY;
+
+		double max = Double.NEGATIVE_INFINITY;
+
+		/**********
+		 *	methods
+		 *********/
+
+		void add(double value)
+		{
+			count++;
+			sum += value;
+			double delta = value - mean;
+			mean += delta / count;
+			m2 += delta * (value - mean);
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+
+		double stdDev()
+		{
+			return count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+		}
+
+		/**
+		 * method to get half the width of the 95% confidence interval of the mean
+		 * @return double half width, infinite until there are two samples
+		 */
+		double halfWidth()
+		{
+			return count > 1 ? Z_95 * stdDev() / Math.sqrt(count) : Double.POSITIVE_INFINITY;
+		}
+
+		String format(String name)
+		{
+			return String.format("%-22s mean %10.2f  sd %10.2f  95%% CI [%.2f, %.2f]  min %.0f  max %.0f",
+					name, mean, stdDev(), mean - halfWidth(), mean + halfWidth(), min, max);
+		}
+	} // end RunningStat
+}
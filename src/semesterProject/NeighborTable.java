@@ -0,0 +1,119 @@
+package semesterProject;
+
+/**
+ * which of the eight squares around each square exist, worked out once
+ *
+ * for every cell a byte holds one bit per direction that stays inside the
+ * grid, and each direction has a fixed cell offset. movement code picks a
+ * random bit or walks the set bits instead of testing the edges of the map
+ * over and over. directions are numbered in reading order:
+ *
+ *		0 1 2
+ *		3 . 4
+ *		5 6 7
+ * @author SChmielowski
+ *
+ */
+public class NeighborTable {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final int[] DX = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+	static final int[] DY = {-1, -1, -1, 0, 0, 1, 1, 1};
+
+	/*************
+	 *	attributes
+	 ************/
+
+	// cell offset of each direction
+	final int[] offset = new int[8];
+
+	// bit d is set if direction d leads to a square inside the grid
+	final byte[] masks;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	public NeighborTable (int width, int height)
+	{
+		for (int dir = 0; dir < 8; dir++)
+			offset[dir] = DY[dir] * width + DX[dir];
+
+		masks = new byte[width * height];
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				int mask = 0;
+				for (int dir = 0; dir < 8; dir++)
+				{
+					int nx = x + DX[dir];
+					int ny = y + DY[dir];
+					if (nx >= 0 && nx < width && ny >= 0 && ny < height)
+						mask |= 1 << dir;
+				}
+				masks[y * width + x] = (byte) mask;
+			}
+		}
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to get the directions that stay inside the grid
+	 * @param cell int square to move from
+	 * @return int bit mask of directions
+	 */
+	public int mask(int cell)
+	{
+		return masks[cell] & 0xFF;
+	}
+
+	/**
+	 * method to get the directions that lead to squares already revealed
+	 * @param cell int square to move from
+	 * @param hidden boolean[] hidden flag of every square
+	 * @return int bit mask of directions
+	 */
+	public int openMask(int cell, boolean[] hidden)
+	{
+		int mask = masks[cell] & 0xFF;
+		for (int bits = mask; bits != 0; bits &= bits - 1)
+		{
+			int dir = Integer.numberOfTrailingZeros(bits);
+			if (hidden[cell + offset[dir]])
+				mask &= ~(1 << dir);
+		}
+		return mask;
+	}
+
+	/**
+	 * method to get the square in a direction
+	 * @param cell int square to move from
+	 * @param dir int direction, 0 to 7
+	 * @return int neighbouring cell
+	 */
+	public int neighbor(int cell, int dir)
+	{
+		return cell + offset[dir];
+	}
+
+	/**
+	 * method to pick one direction out of a mask with a single draw
+	 * @param mask int bit mask of directions, must not be 0
+	 * @param rand RandomSource to draw from
+	 * @return int chosen direction
+	 */
+	public static int randomDirection(int mask, RandomSource rand)
+	{
+		for (int skip = rand.nextInt(Integer.bitCount(mask)); skip > 0; skip--)
+			mask &= mask - 1;
+		return Integer.numberOfTrailingZeros(mask);
+	}
+}
@@ -0,0 +1,293 @@
+package semesterProject;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * runs the ants' turns on a ForkJoinPool, one tile of the grid per task
+ *
+ * the grid is cut into square tiles and every tile gets one of four colours
+ * by the parity of its column and row, like a checkerboard that also keeps
+ * diagonal neighbours apart. a turn runs the colours one after another. an
+ * ant only ever reads or changes its own square and the eight around it, so
+ * two tiles of the same colour, a whole tile apart, never touch the same
+ * square and can run at the same time without locks.
+ *
+ * ants are sorted into the tile they start the turn in and take their turn
+ * during that tile's phase, wherever they move to. each tile runs against
+ * its own shard of the simulation, which shares the squares but keeps its
+ * own running totals and list of dead ants. the shards are merged once the
+ * phase is over, so the registry and every counter are only written by one
+ * thread.
+ *
+ * a run is bit for bit the same on 1 thread or 64, because nothing an ant
+ * does depends on the thread it runs on or on timing:
+ *		- each turn draws one key from the simulation's generator. an ant's
+ *		  random numbers come from a CounterRandom positioned at (key, ant id),
+ *		  so they are a function of the seed, the turn, the ant and the draw
+ *		- ants that could meet are ordered the same way every time: tiles
+ *		  of an earlier colour go first, and inside a tile ants go in order of
+ *		  a priority hashed from (key, ant id), ties broken by slot
+ *		- shards are merged in tile order, and each shard's dead ants leave
+ *		  the registry in the order they died, so slots are reused the same
+ *		  way
+ * the tile size decides which ants share a phase, so it is part of a run's
+ * definition along with the seed. to debug a run from a big machine, run it
+ * again with the same seed and tile size on one thread. it is not the same
+ * run the sequential TurnScheduler would make from that seed.
+ *
+ * only headless runs that are not being recorded can use the engine.
+ * @author SChmielowski
+ *
+ */
+public class ParallelTurnEngine {
+
+	/*************
+	 *	constants
+	 ************/
+
+	public static final int DEFAULT_TILE_SIZE = 32;
+
+	// an ant reaches one square past its tile, so same colour tiles need a gap of two
+	static final int MIN_TILE_SIZE = 2;
+
+	static final int PHASES = 4;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	ForkJoinPool pool;
+
+	int tileSize;
+
+	int tilesX;
+
+	int tilesY;
+
+	int width;
+
+	// tiles of each colour, lowest tile first
+	int[][] phaseTiles;
+
+	// ants of tile t are tileOrder[tileStart[t]] up to tileOrder[tileStart[t + 1]]
+	int[] tileStart;
+
+	int[] tileFill;
+
+	// priority in the high 32 bits, slot in the low 32, so sorting gives the turn order
+	long[] tileOrder = new long[64];
+
+	// tiles of the current phase that have ants
+	int[] active;
+
+	int activeCount;
+
+	// one per tile, made the first time the tile has ants
+	Simulation[] shards;
+
+	int idLimit; // ants with ids at or past this were born during the turn
+
+	long key; // this turn's key for every ant's CounterRandom
+
+	/***************
+	 *	constructors
+	 **************/
+
+	/**
+	 * creates an engine for a grid
+	 * @param config SimulationConfig of the simulation it will run
+	 * @param threads int number of worker threads
+	 * @param tileSize int width and height of a tile in squares
+	 */
+	public ParallelTurnEngine (SimulationConfig config, int threads, int tileSize)
+	{
+		if (threads < 1)
+			throw new IllegalArgumentException("need at least one thread, was " + threads);
+		if (tileSize < MIN_TILE_SIZE)
+			throw new IllegalArgumentException("tiles must be at least " + MIN_TILE_SIZE + " squares, was " + tileSize);
+
+		pool = new ForkJoinPool(threads);
+		this.tileSize = tileSize;
+		width = config.width;
+		tilesX = (config.width + tileSize - 1) / tileSize;
+		tilesY = (config.height + tileSize - 1) / tileSize;
+		int tileCount = tilesX * tilesY;
+
+		int[] perPhase = new int[PHASES];
+		for (int tile = 0; tile < tileCount; tile++)
+			perPhase[phase(tile)]++;
+		phaseTiles = new int[PHASES][];
+		for (int phase = 0; phase < PHASES; phase++)
+			phaseTiles[phase] = new int[perPhase[phase]];
+		int[] filled = new int[PHASES];
+		for (int tile = 0; tile < tileCount; tile++)
+		{
+			int phase = phase(tile);
+			phaseTiles[phase][filled[phase]++] = tile;
+		}
+
+		tileStart = new int[tileCount + 1];
+		tileFill = new int[tileCount];
+		active = new int[tileCount];
+		shards = new Simulation[tileCount];
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	private int phase(int tile)
+	{
+		return ((tile / tilesX) & 1) << 1 | ((tile % tilesX) & 1);
+	}
+
+	private int tileOf(int cell)
+	{
+		return (cell / width / tileSize) * tilesX + (cell % width) / tileSize;
+	}
+
+	public int getThreads()
+	{
+		return pool.getParallelism();
+	}
+
+	public int getTileSize()
+	{
+		return tileSize;
+	}
+
+	/**
+	 * method to take every ant's turn, one colour of tiles at a time
+	 *
+	 * stops after the phase in which the queen dies
+	 * @param sim Simulation the ants belong to
+	 */
+	public void run(Simulation sim)
+	{
+		Colony colony = sim.colony;
+		key = sim.rand.nextLong();
+		idLimit = colony.antCount;
+		sortIntoTiles(colony.ants);
+
+		for (int phase = 0; phase < PHASES && colony.queen != null; phase++)
+		{
+			activeCount = 0;
+			for (int tile : phaseTiles[phase])
+			{
+				if (tileStart[tile] == tileStart[tile + 1])
+					continue;
+
+				if (shards[tile] == null)
+					shards[tile] = new Simulation(sim, new CounterRandom());
+				shards[tile].colony.queen = colony.queen;
+				active[activeCount++] = tile;
+			}
+
+			if (activeCount == 1)
+				runTile(active[0]);
+			else if (activeCount > 1)
+				pool.invoke(new PhaseTask(0, activeCount));
+
+			for (int i = 0; i < activeCount; i++)
+				colony.merge(shards[active[i]].colony);
+		}
+	} // end run()
+
+	/**
+	 * method to group the live ants by the tile they start the turn in
+	 *
+	 * a counting sort by tile, each ant tagged with its priority for the turn
+	 * @param ants AntRegistry holding every live ant
+	 */
+	private void sortIntoTiles(AntRegistry ants)
+	{
+		if (tileOrder.length < ants.size())
+			tileOrder = new long[Math.max(ants.size(), tileOrder.length * 2)];
+
+		Arrays.fill(tileStart, 0);
+		int slotLimit = ants.slotLimit();
+		for (int slot = 0; slot < slotLimit; slot++)
+		{
+			Ant ant = ants.get(slot);
+			if (ant != null)
+				tileStart[tileOf(ant.cell) + 1]++;
+		}
+		for (int tile = 1; tile < tileStart.length; tile++)
+			tileStart[tile] += tileStart[tile - 1];
+
+		System.arraycopy(tileStart, 0, tileFill, 0, tileFill.length);
+		for (int slot = 0; slot < slotLimit; slot++)
+		{
+			Ant ant = ants.get(slot);
+			if (ant != null)
+				tileOrder[tileFill[tileOf(ant.cell)]++] = (CounterRandom.hash(key, ant.id) & 0xFFFFFFFF00000000L) | slot;
+		}
+	} // end sortIntoTiles()
+
+	/**
+	 * method to put one tile's ants in priority order and take their turns on its shard
+	 * @param tile int tile to run
+	 */
+	void runTile(int tile)
+	{
+		Simulation shard = shards[tile];
+		Colony colony = shard.colony;
+		CounterRandom rand = (CounterRandom) shard.rand;
+		int start = tileStart[tile];
+		int end = tileStart[tile + 1];
+
+		Arrays.sort(tileOrder, start, end);
+
+		// an ant killed earlier in the phase is out of its square but still in the registry
+		for (int i = start; i < end && colony.queen != null; i++)
+		{
+			Ant next = colony.ants.get((int) tileOrder[i]);
+			if (next != null && next.cellSlot >= 0 && next.id < idLimit)
+			{
+				rand.position(key, next.id);
+				next.takeTurn(shard);
+			}
+		}
+	} // end runTile()
+
+	/**
+	 * method to stop the worker threads
+	 */
+	public void shutdown()
+	{
+		pool.shutdown();
+	} // end shutdown()
+
+	/**
+	 * runs a range of the active tiles, splitting it until each task has one tile
+	 */
+	class PhaseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		int from;
+
+		int to;
+
+		PhaseTask (int from, int to)
+		{
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from == 1)
+			{
+				runTile(active[from]);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new PhaseTask(from, middle), new PhaseTask(middle, to));
+		}
+	}
+}
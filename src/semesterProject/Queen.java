@@ -12,13 +12,11 @@ public class Queen extends Ant {
 	
 	public Queen (Colony colony)
 	{
-		super(colony);
+		super(colony, AntType.QUEEN);
 		
 		lifeSpan = 72800; // 20 years worth of days, in turns is 72800
 		
-		colony.map[13][13].vNode.setQueen(true);
-		colony.map[13][13].vNode.showQueenIcon();
-		colony.map[13][13].isHidden = false;
+		colony.grid.reveal(cell);
 	}
 	
 	/**********
@@ -40,7 +38,7 @@ public class Queen extends Ant {
 		
 	public void spawnAnt(Colony colony)
 	{
-		int randNum = Simulation.getRandomNum(1000);
+		int randNum = colony.getRandomNum(1000);
 		if (randNum < 500)
 			colony.addAnt(new Forager(colony));
 		else if (randNum < 750)
@@ -51,14 +49,14 @@ public class Queen extends Ant {
 	
 	private void eat(Simulation sim)
 	{
-		if (sim.colony.map[13][13].food == 0)
+		ColonyGrid grid = sim.colony.grid;
+		if (grid.food[cell] == 0)
 		{
 			death(sim, this);
 		}
 		else
 		{
-			sim.colony.map[13][13].food--;
-			sim.colony.map[13][13].updateVNode();	
+			grid.addFood(cell, -1);
 		}
 	}
 }
@@ -0,0 +1,56 @@
+package semesterProject;
+
+/**
+ * interface for the random number generator a simulation draws from
+ *
+ * every simulation owns its own source, so two simulations never share state
+ * and a simulation started from the same seed makes the same decisions.
+ * implementations do not need to be thread safe.
+ * @author SChmielowski
+ *
+ */
+public interface RandomSource {
+
+	/**
+	 * method to get a random number
+	 * 
+	 * built on nextLong, rejecting draws from the top partial range so every
+	 * value is equally likely
+	 * @param max int one more than the highest possible return value, must be positive
+	 * @return int random number between 0 and max - 1
+	 */
+	default int nextInt(int max)
+	{
+		if (max <= 0)
+			throw new IllegalArgumentException("max must be positive");
+		
+		int r = (int) (nextLong() >>> 33);
+		int m = max - 1;
+		
+		// power of two, just take the high bits
+		if ((max & m) == 0)
+			return (int) ((max * (long) r) >> 31);
+		
+		for (int u = r; u - (r = u % max) + m < 0; u = (int) (nextLong() >>> 33))
+			;
+		return r;
+	} // end nextInt()
+	
+	/**
+	 * method to get 64 random bits
+	 * @return long random number
+	 */
+	long nextLong();
+	
+	/**
+	 * method to copy out the generator's internal state
+	 * @return long[] state that setState accepts
+	 */
+	long[] getState();
+	
+	/**
+	 * method to put the generator back into a state taken from getState
+	 * @param state long[] state to restore
+	 */
+	void setState(long[] state);
+}
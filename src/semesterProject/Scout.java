@@ -8,7 +8,7 @@ public class Scout extends Ant {
 	
 	public Scout (Colony colony)
 	{
-		super(colony);
+		super(colony, AntType.SCOUT);
 	}
 	
 	/**********
@@ -34,7 +34,7 @@ public class Scout extends Ant {
 		super.move(colony);
 
 		// if square is hidden, open it
-		if (colony.map[x][y].isHidden)
-			colony.map[x][y].openNode();
+		if (colony.grid.hidden[cell])
+			colony.grid.openNode(cell, colony.rand);
 	} // end move()
 } // end Scout
@@ -1,27 +1,41 @@
 package semesterProject;
 
-import java.util.Random;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 
+import javax.swing.JFileChooser;
 import javax.swing.JOptionPane;
-import javax.swing.Timer;
+import javax.swing.SwingUtilities;
 
 import AntSimGUI.AntSimGUI;
 import AntSimGUI.SimulationEvent;
 import AntSimGUI.SimulationEventListener;
-import dataStructures.ArrayQueue;
-import dataStructures.List;
-import dataStructures.Queue;
 
 
-public class Simulation implements ActionListener, SimulationEventListener{
+public class Simulation implements SimulationEventListener{
+
+	/*************
+	 *	constants
+	 ************/
+	
+	// turns per second for the speed buttons
+	static final int SLOW_SPEED = 1;
+	
+	static final int NORMAL_SPEED = 10;
+	
+	// frames per second the gui redraws the colony at
+	static final int FRAME_RATE = 30;
+
 
 	/*************
 	 *	attributes
 	 ************/
 	
-	AntSimGUI gui = new AntSimGUI();
+	AntSimGUI gui;
+	
+	boolean headless;
 
 	int year;
 	
@@ -29,13 +43,25 @@ public class Simulation implements ActionListener, SimulationEventListener{
 	
 	int turn;
 	
+	long totalTurns; // turns taken since initSim
+	
 	boolean nodeChange;
 	
-	Colony colony = new Colony();
+	Colony colony;
+	
+	SimulationThread engine; // runs the turns when there is a gui, null when headless
+	
+	RandomSource rand;
 	
-	Timer timer;
+	TurnScheduler scheduler = new TurnScheduler();
 	
-	static Random rand = new Random();
+	JournalReplayer replayer; // null unless this simulation is replaying a journal
+	
+	SimulationMetrics metrics; // null unless registered with JMX
+	
+	TelemetryRecorder telemetry; // null unless recording a record per turn
+	
+	ParallelTurnEngine parallel; // null unless ant turns run on tiles in parallel
 	
 	/***************
 	 *	constructors
@@ -43,36 +69,173 @@ public class Simulation implements ActionListener, SimulationEventListener{
 	
 	public Simulation ()
 	{
-		// add array map to the gui
-		gui.initGUI(colony.vMap);
-		
-		// add event listeners to simulation
-		gui.addSimulationEventListener(this);
-		
-		// Initialize timer
-		timer = new Timer(1000, this);
-		
-		initSim();
+		this(false);
+	}
+	
+	/**
+	 * creates a simulation, optionally without any Swing objects
+	 * @param headless true to run the engine with no gui, colony view or node views
+	 */
+	public Simulation (boolean headless)
+	{
+		this(headless, System.nanoTime());
+	}
+	
+	/**
+	 * creates a simulation whose every decision follows from the seed
+	 * @param headless true to run the engine with no gui
+	 * @param seed long seed for the simulation's random number generator
+	 */
+	public Simulation (boolean headless, long seed)
+	{
+		this(headless, new XoroshiroRandom(seed));
+	}
+	
+	/**
+	 * creates a simulation drawing from the given random number generator
+	 * @param headless true to run the engine with no gui
+	 * @param rand RandomSource owned by this simulation from now on
+	 */
+	public Simulation (boolean headless, RandomSource rand)
+	{
+		this(headless, rand, new SimulationConfig());
+	}
+	
+	/**
+	 * creates a simulation on a grid of any size
+	 * @param headless true to run the engine with no gui
+	 * @param rand RandomSource owned by this simulation from now on
+	 * @param config SimulationConfig with the grid size and queen position
+	 */
+	public Simulation (boolean headless, RandomSource rand, SimulationConfig config)
+	{
+		try
+		{
+			init(headless, rand, config, null);
+		}
+		catch (IOException e)
+		{
+			// only restoring a checkpoint can fail
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * creates a simulation that carries on from a saved checkpoint
+	 * @param headless true to run the engine with no gui
+	 * @param checkpoint Checkpoint from Checkpoint.load
+	 * @throws IOException if the checkpoint is damaged
+	 */
+	public Simulation (boolean headless, Checkpoint checkpoint) throws IOException
+	{
+		init(headless, new XoroshiroRandom(0), checkpoint.getConfig(), checkpoint);
+	}
+	
+	/**
+	 * creates a simulation that plays back a recorded journal
+	 * @param headless true to rebuild the colony with no gui
+	 * @param replayer JournalReplayer to read turns from, starting at its start turn
+	 * @throws IOException if the journal or a keyframe cannot be read
+	 */
+	public Simulation (boolean headless, JournalReplayer replayer) throws IOException
+	{
+		this.replayer = replayer;
+		init(headless, new XoroshiroRandom(0), replayer.getConfig(), null);
+	}
+	
+	/**
+	 * creates the shard one tile of a ParallelTurnEngine runs its ants against
+	 * @param shared Simulation being run in parallel
+	 * @param rand RandomSource for the tile
+	 */
+	Simulation (Simulation shared, RandomSource rand)
+	{
+		headless = true;
+		this.rand = rand;
+		colony = new Colony(shared.colony, rand);
 	}
 	
 	/**********
 	 *	methods
 	 *********/
 	
+	private void init(boolean headless, RandomSource rand, SimulationConfig config, Checkpoint checkpoint)
+			throws IOException
+	{
+		this.headless = headless;
+		this.rand = rand;
+		colony = new Colony(!headless, rand, config);
+		
+		if (!headless)
+		{
+			gui = new AntSimGUI();
+			
+			// add array map to the gui
+			gui.initGUI(colony.bridge.getView());
+			colony.bridge.setGUI(gui);
+			
+			// add event listeners to simulation
+			gui.addSimulationEventListener(this);
+			
+			// redraw at a steady frame rate however fast the turns run
+			colony.bridge.startSampling(FRAME_RATE);
+			
+			// only the engine thread touches the model from here on
+			engine = new SimulationThread(this, SLOW_SPEED);
+			
+			SimulationMetrics.register(this);
+		}
+		
+		if (replayer != null)
+			replayer.seek(this, replayer.startTurn);
+		else if (checkpoint == null)
+			initSim();
+		else
+		{
+			checkpoint.restore(this);
+			publishView();
+		}
+		
+		if (engine != null)
+			engine.start();
+	} // end init()
+	
+	/**
+	 * method to put the colony back to its starting state
+	 */
+	void reset()
+	{
+		if (replayer != null)
+		{
+			try
+			{
+				replayer.seek(this, replayer.firstTurn);
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			return;
+		}
+		
+		colony.resetColony();
+		initSim();
+	} // end reset()
+	
 	private void initSim()
 	{
 		// initialize turn/day and add to gui
 		turn = 1;
 		day = 1;
 		year = 0;
-		gui.setTime(this.getTime());
+		totalTurns = 0;
 		
 		// add queen
 		colony.addAnt(new Queen(this.colony));
 		
 		/////////////// Colony Entrance Starting "Supplies" ////////////////////////////
 		// starting food is 1000
-		colony.map[13][13].food = 1000;
+		colony.grid.addFood(colony.queenCell, 1000);
 		
 		// add 10 starting soldiers
 		for (int i = 0; i < 10; i++)
@@ -87,50 +250,47 @@ public class Simulation implements ActionListener, SimulationEventListener{
 			colony.addAnt(new Scout(colony));
 		/////////////// Colony Entrance Starting Supplies //////////////////////////////
 		
-		colony.map[13][13].updateVNode();
+		publishView();
 	}
 	
 	/**
 	 * a method to run the simulation for a single turn
 	 * 
-	 * updates turn and day and updates gui
+	 * updates turn and day
 	 * on first turn of day, queen spawns a new ant and all pheromone is halved.
 	 * 
 	 */
-	private void takeTurn()
+	void takeTurn()
 	{
-		// after turn 10 day increases and turn reverts to 1
-		if (turn == 10)
+		boolean timed = metrics != null || telemetry != null;
+		long start = timed ? System.nanoTime() : 0;
+		
+		// a replay reads the turn from its journal instead of running it
+		if (replayer != null)
+			replayer.replayTurn(this);
+		else
+			simulateTurn();
+		
+		if (timed)
+		{
+			long end = System.nanoTime();
+			if (metrics != null)
+				metrics.turnTaken(start, end);
+			if (telemetry != null)
+				telemetry.turnTaken(end - start);
+		}
+	} // end takeTurn()
+	
+	private void simulateTurn()
+	{
+		if (advanceClock())
 		{
-			day++;
-			if (day == 365)
-			{
-				year++;
-				day = 1;
-			}
-			turn = 1;
-			
 			// queen spawns ant on first turn of every day
-			((Queen) colony.colAntHash.get(0)).spawnAnt(colony);
+			colony.queen.spawnAnt(colony);
 			
 			// pheromone levels in each square drop by half on first turn of every day
-			for (int y = 0; y < 27; y++)
-			{
-				for (int x = 0; x < 27; x++)
-				{
-					int temp = colony.map[x][y].pheromone;
-					temp = temp / 2;
-					colony.map[x][y].pheromone = temp;
-					colony.map[x][y].vNode.setPheromoneLevel(temp);
-					colony.map[x][y].updateVNode();
-				}
-			}
+			colony.grid.decayPheromone();
 		}
-		else
-			turn++;
-		
-		// update gui with new turn information
-		gui.setTime(getTime());
 		
 		// 3% chance a Bala will spawn in colony // TODO turn back on
 		if (getRandomNum(1000) < 30)
@@ -139,13 +299,52 @@ public class Simulation implements ActionListener, SimulationEventListener{
 		}
 		
 		runAntTurns();
-	} // end takeTurn()
+		
+		if (colony.grid.journal != null)
+			colony.grid.journal.endTurn(this);
+	} // end simulateTurn()
+	
+	/**
+	 * method to move the time on by one turn
+	 * @return boolean true if the turn starts a new day
+	 */
+	boolean advanceClock()
+	{
+		totalTurns++;
+		
+		// after turn 10 day increases and turn reverts to 1
+		if (turn == 10)
+		{
+			day++;
+			if (day == 365)
+			{
+				year++;
+				day = 1;
+			}
+			turn = 1;
+			return true;
+		}
+		
+		turn++;
+		return false;
+	} // end advanceClock()
+	
+	/**
+	 * method to send the squares that changed and the time to the gui
+	 * 
+	 * called once per frame, not once per change
+	 */
+	void publishView()
+	{
+		if (colony.bridge != null)
+			colony.bridge.publish(getTime());
+	} // end publishView()
 	
 	/**
 	 * method to get current year, day and turn of simulation
 	 * @return String containing day and turn
 	 */
-	private String getTime()
+	String getTime()
 	{
 		return "Year " + year + ". Day " + day + ". Turn " + turn + ".";
 	} // end getTime()
@@ -155,7 +354,7 @@ public class Simulation implements ActionListener, SimulationEventListener{
 	 * @param max int that is highest possible return value
 	 * @return int random number
 	 */
-	public static int getRandomNum(int max)
+	public int getRandomNum(int max)
 	{
 		return rand.nextInt(max);
 	} // end getRandomNum
@@ -163,82 +362,160 @@ public class Simulation implements ActionListener, SimulationEventListener{
 	/**
 	 * a method that creates a psuedo-random order and takes each ants turn
 	 * 
-	 * pulls list of keys from the master HashMap, a random item is chosen from the key list,
-	 * placed into a queue, then deleted. Process is repeated until all keys are placed in the queue.
-	 * queue is dequeued until empty, taking each ants turn.
+	 * the scheduler shuffles the slots of every ant still in the colony and
+	 * then runs them in that order, stopping if the queen dies. with a
+	 * ParallelTurnEngine the ants are shuffled and run tile by tile instead.
 	 */
 	private void runAntTurns()
 	{
-		// queue that will be the list of keys in random order
-		Queue turnOrder = new ArrayQueue();
-		// list of keys for every ant still in colony
-		List availableKeys = colony.colAntHash.keyList();
-		// randomly pick a key, add to turn order, and remove from list to prevent repeats
-		while (!availableKeys.isEmpty())
+		// a journal records changes in the order they happen, which tiles do not have
+		if (parallel != null && colony.grid.journal == null)
 		{
-			int pick = Simulation.getRandomNum(availableKeys.size());
-			turnOrder.enqueue(availableKeys.get(pick));
-			availableKeys.remove(pick);
+			parallel.run(this);
+			return;
 		}
 		
-		// take all turns
-		while (!turnOrder.isEmpty() && colony.colAntHash.get(0) != null)
+		scheduler.prepare(colony.ants, rand);
+		scheduler.run(this);
+	} // end runAntTurns()
+	
+	/**
+	 * method to run the ants' turns on tiles across several threads
+	 * @param threads int worker threads, 0 to go back to the sequential scheduler
+	 * @param tileSize int width and height of a tile in squares
+	 */
+	public void setParallelism(int threads, int tileSize)
+	{
+		if (threads > 0 && !headless)
+			throw new IllegalStateException("only headless simulations can run in parallel");
+		
+		if (parallel != null)
+			parallel.shutdown();
+		parallel = null;
+		if (threads > 0)
+			parallel = new ParallelTurnEngine(new SimulationConfig(colony.width, colony.height,
+					colony.queenX, colony.queenY), threads, tileSize);
+	} // end setParallelism()
+	
+	/**
+	 * method to run turns back to back until the limit is reached or the queen dies
+	 * @param maxTurns int highest number of turns to run
+	 * @return int number of turns actually run
+	 */
+	public int runTurns(int maxTurns)
+	{
+		int count = 0;
+		while (count < maxTurns && isQueenAlive())
 		{
-			int next = (int) turnOrder.dequeue();
-			if (colony.colAntHash.get(next) != null)
-				((Ant) colony.colAntHash.get(next)).takeTurn(this);
+			takeTurn();
+			count++;
 		}
-	} // end runAntTurns()
+		return count;
+	} // end runTurns()
+	
+	/**
+	 * method to get the hash of the colony's squares after the last turn
+	 * 
+	 * kept up to date as the squares change, so it costs nothing to read
+	 * every turn. two runs, or a run and its replay, with equal hashes after
+	 * a turn hold the same ants, food and pheromone in the same squares.
+	 * @return long state hash, see ColonyGrid
+	 */
+	public long getStateHash()
+	{
+		return colony.grid.stateHash();
+	} // end getStateHash()
+	
+	/**
+	 * method to check if the simulation can continue
+	 * @return boolean true while the queen is still in the colony
+	 */
+	public boolean isQueenAlive()
+	{
+		// a replay also stops when its journal runs out
+		if (replayer != null && !replayer.hasTurn(totalTurns + 1))
+			return false;
+		return colony.queen != null;
+	} // end isQueenAlive()
+	
+	/**
+	 * method to save a checkpoint, reporting any failure in a dialog
+	 *
+	 * runs on the engine thread between turns
+	 * @param file Path to save to
+	 */
+	void saveCheckpoint(Path file)
+	{
+		try
+		{
+			// a replay only rebuilds the squares, not each ant's age or path
+			if (replayer != null)
+				throw new IOException("a replay cannot be saved, use its keyframes instead");
+			Checkpoint.save(this, file);
+		}
+		catch (final IOException e)
+		{
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run()
+				{
+					JOptionPane.showMessageDialog(gui, "Could not save: " + e.getMessage(), "Save",
+							JOptionPane.ERROR_MESSAGE);
+				}
+			});
+		}
+	} // end saveCheckpoint()
 	
 	public void endSim ()
 	{
-		timer.stop();
-		JOptionPane.showMessageDialog(null, "The Queen has died!", "Game Over", JOptionPane.PLAIN_MESSAGE);
+		// headless runs just stop, runTurns sees the queen is gone
+		if (headless)
+			return;
+		
+		// the engine stops itself, the dialog belongs on the event thread
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run()
+			{
+				JOptionPane.showMessageDialog(null, "The Queen has died!", "Game Over", JOptionPane.PLAIN_MESSAGE);
+			}
+		});
 	} // end endSim()
 
-	@Override
-	public void actionPerformed(ActionEvent e) 
-	{
-		if(colony.colAntHash.get(0) == null)
-			timer.stop();
-		else
-			takeTurn();
-	}
-
 	@Override
 	public void simulationEventOccurred(SimulationEvent simEvent) {
 		if (simEvent.getEventType() == SimulationEvent.NORMAL_SETUP_EVENT)
 		{ // set up the simulation for normal operation }
-			timer.stop();
-			timer.setDelay(100);
-			colony.resetColony();
-			initSim();
+			engine.reset(NORMAL_SPEED);
 		}
 		else if (simEvent.getEventType() == SimulationEvent.QUEEN_TEST_EVENT)
 		{ // set up simulation for testing the queen ant }
-			timer.setDelay(1);
+			engine.setSpeed(SimulationThread.UNTHROTTLED);
 		}
 		else if (simEvent.getEventType() == SimulationEvent.SCOUT_TEST_EVENT)
 		{ // set up simulation for testing the scout ant }
-			timer.setDelay(100);
+			engine.setSpeed(NORMAL_SPEED);
 		}
 		else if (simEvent.getEventType() == SimulationEvent.FORAGER_TEST_EVENT)
 		{ // set up simulation for testing the forager ant }
-			timer.setDelay(1000);
+			engine.setSpeed(SLOW_SPEED);
 		}
 		else if (simEvent.getEventType() == SimulationEvent.SOLDIER_TEST_EVENT)
 		{ // set up simulation for testing the soldier ant }
-			timer.stop();		
+			engine.pause();
 		}
 		else if (simEvent.getEventType() == SimulationEvent.RUN_EVENT)
 		{ // run the simulation continuously }
-			timer.start();
+			engine.runContinuously();
 		}
 		else if (simEvent.getEventType() == SimulationEvent.STEP_EVENT)
 		{ // run the next turn of the simulation }
-			timer.stop();
-			if(colony.colAntHash.get(0) != null)
-				takeTurn();
+			engine.step();
+		}
+		else if (simEvent.getEventType() == SimulationEvent.SAVE_EVENT)
+		{ // save the simulation to a file the user picks }
+			JFileChooser chooser = new JFileChooser();
+			chooser.setSelectedFile(new File("colony.ants"));
+			if (chooser.showSaveDialog(gui) == JFileChooser.APPROVE_OPTION)
+				engine.save(chooser.getSelectedFile().toPath());
 		}
 		else
 		{ // invalid event occurred - probably will never happen }
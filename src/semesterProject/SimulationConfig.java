@@ -0,0 +1,101 @@
+package semesterProject;
+
+/**
+ * size of the world a simulation runs in and where the queen sits
+ *
+ * the default is the original 27 x 27 grid with the queen in the middle
+ * square. width and height are counted in nodes, the queen position is zero
+ * based.
+ * @author SChmielowski
+ *
+ */
+public class SimulationConfig {
+
+	/*************
+	 *	constants
+	 ************/
+
+	public static final int DEFAULT_SIZE = 27;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	int width;
+
+	int height;
+
+	int queenX;
+
+	int queenY;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	public SimulationConfig ()
+	{
+		this(DEFAULT_SIZE, DEFAULT_SIZE);
+	}
+
+	/**
+	 * creates a config with the queen in the middle of the grid
+	 * @param width int number of nodes along the x axis
+	 * @param height int number of nodes along the y axis
+	 */
+	public SimulationConfig (int width, int height)
+	{
+		this(width, height, width / 2, height / 2);
+	}
+
+	/**
+	 * creates a config with the queen at the given node
+	 * @param width int number of nodes along the x axis
+	 * @param height int number of nodes along the y axis
+	 * @param queenX int zero based x of the queen's node
+	 * @param queenY int zero based y of the queen's node
+	 */
+	public SimulationConfig (int width, int height, int queenX, int queenY)
+	{
+		if (width < 3 || height < 3)
+			throw new IllegalArgumentException("grid must be at least 3 x 3, was " + width + " x " + height);
+		if ((long) width * height > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("grid of " + width + " x " + height + " is too large");
+		if (queenX < 0 || queenX >= width || queenY < 0 || queenY >= height)
+			throw new IllegalArgumentException("queen (" + queenX + ", " + queenY + ") is outside the grid");
+
+		this.width = width;
+		this.height = height;
+		this.queenX = queenX;
+		this.queenY = queenY;
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	public int getWidth()
+	{
+		return width;
+	}
+
+	public int getHeight()
+	{
+		return height;
+	}
+
+	public int getQueenX()
+	{
+		return queenX;
+	}
+
+	public int getQueenY()
+	{
+		return queenY;
+	}
+
+	public String toString()
+	{
+		return width + "x" + height + " queen (" + queenX + ", " + queenY + ")";
+	}
+}
@@ -0,0 +1,304 @@
+package semesterProject;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * JMX view of one simulation, registered as semesterProject:type=Simulation,id=N
+ *
+ * every number is already kept up to date by the colony and the grid as
+ * things change, so reading an attribute is a few field reads and never
+ * walks the map. the simulation thread only adds each turn's start and end
+ * time to a ring of the last SAMPLES turns, and the percentiles and turn
+ * rate are worked out from a copy of that ring when they are read.
+ *
+ * attributes are read from the JMX thread without locking, so they may be a
+ * turn behind and need not all come from the same turn.
+ * @author SChmielowski
+ *
+ */
+public class SimulationMetrics implements SimulationMetricsMBean {
+
+	/*************
+	 *	constants
+	 ************/
+
+	// turns kept for the timing figures, a power of two
+	static final int SAMPLES = 1024;
+
+	static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+	/*************
+	 *	attributes
+	 ************/
+
+	Simulation sim;
+
+	ObjectName name;
+
+	// duration and end time of recent turns, in nanoseconds, oldest overwritten first
+	long[] durations = new long[SAMPLES];
+
+	long[] ends = new long[SAMPLES];
+
+	volatile long samples; // turns recorded, written after the ring so readers see whole entries
+
+	/***************
+	 *	constructors
+	 **************/
+
+	SimulationMetrics (Simulation sim)
+	{
+		this.sim = sim;
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to make a simulation visible in jconsole and start timing its turns
+	 * @param sim Simulation to expose
+	 * @return SimulationMetrics registered for it
+	 */
+	public static SimulationMetrics register(Simulation sim)
+	{
+		SimulationMetrics metrics = new SimulationMetrics(sim);
+		try
+		{
+			metrics.name = new ObjectName("semesterProject:type=Simulation,id=" + NEXT_ID.getAndIncrement());
+			ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, metrics.name);
+		}
+		catch (JMException e)
+		{
+			throw new IllegalStateException("could not register simulation metrics", e);
+		}
+		sim.metrics = metrics;
+		return metrics;
+	} // end register()
+
+	/**
+	 * method to remove the simulation from JMX and stop timing it
+	 */
+	public void unregister()
+	{
+		sim.metrics = null;
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (server.isRegistered(name))
+				server.unregisterMBean(name);
+		}
+		catch (JMException e)
+		{
+			throw new IllegalStateException("could not unregister simulation metrics", e);
+		}
+	} // end unregister()
+
+	/**
+	 * method to note a finished turn, called by the simulation thread
+	 * @param start long nanoTime the turn started
+	 * @param end long nanoTime the turn ended
+	 */
+	void turnTaken(long start, long end)
+	{
+		int i = (int) (samples & (SAMPLES - 1));
+		durations[i] = end - start;
+		ends[i] = end;
+		samples = samples + 1;
+	} // end turnTaken()
+
+	/**
+	 * method to copy out the recorded durations, sorted
+	 * @return long[] durations of up to SAMPLES recent turns
+	 */
+	private long[] sortedDurations()
+	{
+		int count = (int) Math.min(samples, SAMPLES);
+		long[] sorted = Arrays.copyOf(durations, count);
+		Arrays.sort(sorted);
+		return sorted;
+	} // end sortedDurations()
+
+	private double percentileMicros(double fraction)
+	{
+		long[] sorted = sortedDurations();
+		if (sorted.length == 0)
+			return 0;
+		int index = (int) Math.ceil(fraction * sorted.length) - 1;
+		return sorted[Math.max(0, index)] / 1000.0;
+	} // end percentileMicros()
+
+	private double perDay(long count)
+	{
+		long turns = sim.totalTurns;
+		return turns == 0 ? 0 : count * 10.0 / turns;
+	} // end perDay()
+
+	@Override
+	public long getTotalTurns()
+	{
+		return sim.totalTurns;
+	}
+
+	@Override
+	public String getTime()
+	{
+		return sim.getTime();
+	}
+
+	/**
+	 * turns finished per second of wall clock time over the recorded turns
+	 */
+	@Override
+	public double getTurnsPerSecond()
+	{
+		long taken = samples;
+		int count = (int) Math.min(taken, SAMPLES);
+		if (count < 2)
+			return 0;
+
+		long newest = ends[(int) ((taken - 1) & (SAMPLES - 1))];
+		long oldest = ends[(int) ((taken - count) & (SAMPLES - 1))];
+		if (newest <= oldest)
+			return 0;
+		return (count - 1) * 1e9 / (newest - oldest);
+	}
+
+	@Override
+	public double getTurnDurationP50Micros()
+	{
+		return percentileMicros(0.50);
+	}
+
+	@Override
+	public double getTurnDurationP90Micros()
+	{
+		return percentileMicros(0.90);
+	}
+
+	@Override
+	public double getTurnDurationP99Micros()
+	{
+		return percentileMicros(0.99);
+	}
+
+	@Override
+	public double getTurnDurationMaxMicros()
+	{
+		return percentileMicros(1.0);
+	}
+
+	@Override
+	public boolean isQueenAlive()
+	{
+		return sim.colony.queen != null;
+	}
+
+	@Override
+	public int getLiveAnts()
+	{
+		return sim.colony.ants.size();
+	}
+
+	@Override
+	public int getLiveForagers()
+	{
+		return sim.colony.liveAnts[AntType.FORAGER];
+	}
+
+	@Override
+	public int getLiveScouts()
+	{
+		return sim.colony.liveAnts[AntType.SCOUT];
+	}
+
+	@Override
+	public int getLiveSoldiers()
+	{
+		return sim.colony.liveAnts[AntType.SOLDIER];
+	}
+
+	@Override
+	public int getLiveBala()
+	{
+		return sim.colony.liveAnts[AntType.BALA];
+	}
+
+	@Override
+	public int getPeakPopulation()
+	{
+		return sim.colony.peakPopulation;
+	}
+
+	@Override
+	public long getBalaSpawned()
+	{
+		return sim.colony.balaSpawned;
+	}
+
+	@Override
+	public long getBalaKilled()
+	{
+		return sim.colony.balaKilled;
+	}
+
+	@Override
+	public long getAntsKilledByBala()
+	{
+		return sim.colony.killedByBala;
+	}
+
+	@Override
+	public double getBalaSpawnsPerDay()
+	{
+		return perDay(sim.colony.balaSpawned);
+	}
+
+	@Override
+	public double getBalaKillsPerDay()
+	{
+		return perDay(sim.colony.balaKilled);
+	}
+
+	@Override
+	public long getTotalFood()
+	{
+		return sim.colony.grid.totalFood;
+	}
+
+	@Override
+	public int getQueenFood()
+	{
+		return sim.colony.grid.food[sim.colony.queenCell];
+	}
+
+	@Override
+	public long getFoodDelivered()
+	{
+		return sim.colony.foodDelivered;
+	}
+
+	@Override
+	public int getExploredCells()
+	{
+		return sim.colony.grid.exploredCount;
+	}
+
+	@Override
+	public long getTotalPheromone()
+	{
+		return sim.colony.grid.totalPheromone;
+	}
+
+	@Override
+	public String getStateHash()
+	{
+		return String.format("%016x", sim.colony.grid.stateHash);
+	}
+}
@@ -0,0 +1,68 @@
+package semesterProject;
+
+/**
+ * what a running simulation shows through JMX, for jconsole or any other JMX client
+ *
+ * rates are per simulated day. turn durations are taken from the last
+ * SimulationMetrics.SAMPLES turns.
+ * @author SChmielowski
+ *
+ */
+public interface SimulationMetricsMBean {
+
+	// time
+
+	long getTotalTurns();
+
+	String getTime();
+
+	double getTurnsPerSecond();
+
+	double getTurnDurationP50Micros();
+
+	double getTurnDurationP90Micros();
+
+	double getTurnDurationP99Micros();
+
+	double getTurnDurationMaxMicros();
+
+	// ants
+
+	boolean isQueenAlive();
+
+	int getLiveAnts();
+
+	int getLiveForagers();
+
+	int getLiveScouts();
+
+	int getLiveSoldiers();
+
+	int getLiveBala();
+
+	int getPeakPopulation();
+
+	long getBalaSpawned();
+
+	long getBalaKilled();
+
+	long getAntsKilledByBala();
+
+	double getBalaSpawnsPerDay();
+
+	double getBalaKillsPerDay();
+
+	// grid
+
+	long getTotalFood();
+
+	int getQueenFood();
+
+	long getFoodDelivered();
+
+	int getExploredCells();
+
+	long getTotalPheromone();
+
+	String getStateHash();
+}
@@ -0,0 +1,465 @@
+package semesterProject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * long running server that hosts many headless simulations behind a local HTTP API
+ *
+ * usage: SimulationServer [--port N] [--bind ADDRESS]
+ *
+ * every request runs on its own virtual thread, so a request stepping a big
+ * colony for minutes holds no platform thread and hundreds of sessions share
+ * one warmed up JVM. a session is one Simulation. requests on the same
+ * session take turns on its lock, requests on different sessions run at the
+ * same time. the lock is a ReentrantLock rather than synchronized so a
+ * waiting virtual thread does not pin its carrier.
+ *
+ *		POST   /sessions?seed=N&width=N&height=N[&queenX=N&queenY=N]
+ *		GET    /sessions
+ *		GET    /sessions/ID
+ *		POST   /sessions/ID/step?turns=N
+ *		POST   /sessions/ID/run            until the queen dies
+ *		GET    /sessions/ID/grid
+ *		DELETE /sessions/ID
+ *
+ * replies are JSON. a session's stats are the same numbers SimulationMetrics
+ * shows in jconsole. the grid snapshot holds one array per property, indexed
+ * by cell = y * width + x. the server listens on 127.0.0.1 unless told
+ * otherwise, it has no authentication.
+ * @author SChmielowski
+ *
+ */
+public class SimulationServer {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final int DEFAULT_PORT = 8470;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	HttpServer server;
+
+	Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+	AtomicLong nextId = new AtomicLong(1);
+
+	/**
+	 * one hosted simulation and the lock its requests take turns on
+	 */
+	static class Session {
+
+		final long id;
+
+		final long seed;
+
+		final Simulation sim;
+
+		final SimulationMetrics stats;
+
+		final ReentrantLock lock = new ReentrantLock();
+
+		Session (long id, long seed, Simulation sim)
+		{
+			this.id = id;
+			this.seed = seed;
+			this.sim = sim;
+			stats = new SimulationMetrics(sim);
+		}
+	}
+
+	/**
+	 * thrown by a handler to answer with an error status
+	 */
+	static class HttpError extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		final int status;
+
+		HttpError (int status, String message)
+		{
+			super(message);
+			this.status = status;
+		}
+	}
+
+	/***************
+	 *	constructors
+	 **************/
+
+	/**
+	 * creates a server, not yet listening
+	 * @param address InetSocketAddress to listen on
+	 * @throws IOException if the address cannot be bound
+	 */
+	public SimulationServer (InetSocketAddress address) throws IOException
+	{
+		server = HttpServer.create(address, 0);
+		server.createContext("/sessions", new Handler());
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	public static void main(String[] args) throws IOException
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		int port = DEFAULT_PORT;
+		String bind = "127.0.0.1";
+		for (int i = 0; i < args.length; i++)
+		{
+			if (args[i].equals("--port") && i + 1 < args.length)
+				port = Integer.parseInt(args[++i]);
+			else if (args[i].equals("--bind") && i + 1 < args.length)
+				bind = args[++i];
+			else
+			{
+				System.err.println("usage: SimulationServer [--port N] [--bind ADDRESS]");
+				return;
+			}
+		}
+
+		SimulationServer server = new SimulationServer(new InetSocketAddress(bind, port));
+		server.start();
+		System.err.println("listening on http://" + bind + ":" + server.getPort() + "/sessions");
+	}
+
+	public void start()
+	{
+		server.start();
+	}
+
+	/**
+	 * method to stop listening and drop every session
+	 * @param delaySeconds int longest time to wait for requests still running
+	 */
+	public void stop(int delaySeconds)
+	{
+		server.stop(delaySeconds);
+		sessions.clear();
+	}
+
+	public int getPort()
+	{
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * method to start a new session
+	 * @param query Map of the request's parameters
+	 * @return Session added to the server
+	 */
+	Session create(Map<String, String> query)
+	{
+		long seed = longParam(query, "seed", System.nanoTime());
+		int width = intParam(query, "width", SimulationConfig.DEFAULT_SIZE);
+		int height = intParam(query, "height", SimulationConfig.DEFAULT_SIZE);
+
+		SimulationConfig config;
+		try
+		{
+			if (query.containsKey("queenX") || query.containsKey("queenY"))
+				config = new SimulationConfig(width, height, intParam(query, "queenX", width / 2),
+						intParam(query, "queenY", height / 2));
+			else
+				config = new SimulationConfig(width, height);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new HttpError(400, e.getMessage());
+		}
+
+		Session session = new Session(nextId.getAndIncrement(), seed,
+				new Simulation(true, new XoroshiroRandom(seed), config));
+		sessions.put(session.id, session);
+		return session;
+	} // end create()
+
+	/**
+	 * method to find the session a path names
+	 * @param id String session id from the path
+	 * @return Session with that id
+	 */
+	Session find(String id)
+	{
+		Session session = null;
+		try
+		{
+			session = sessions.get(Long.parseLong(id));
+		}
+		catch (NumberFormatException e)
+		{
+			// not a number, so no such session
+		}
+		if (session == null)
+			throw new HttpError(404, "no session " + id);
+		return session;
+	} // end find()
+
+	/**
+	 * method to write a session's stats as a JSON object
+	 * @param session Session to describe, its lock held by the caller
+	 * @return String JSON object
+	 */
+	static String stats(Session session)
+	{
+		SimulationMetrics stats = session.stats;
+		StringBuilder json = new StringBuilder(512);
+		json.append("{\"id\":").append(session.id)
+			.append(",\"seed\":").append(session.seed)
+			.append(",\"time\":\"").append(stats.getTime()).append('"')
+			.append(",\"totalTurns\":").append(stats.getTotalTurns())
+			.append(",\"queenAlive\":").append(stats.isQueenAlive())
+			.append(",\"ants\":").append(stats.getLiveAnts())
+			.append(",\"foragers\":").append(stats.getLiveForagers())
+			.append(",\"scouts\":").append(stats.getLiveScouts())
+			.append(",\"soldiers\":").append(stats.getLiveSoldiers())
+			.append(",\"bala\":").append(stats.getLiveBala())
+			.append(",\"peakPopulation\":").append(stats.getPeakPopulation())
+			.append(",\"balaSpawned\":").append(stats.getBalaSpawned())
+			.append(",\"balaKilled\":").append(stats.getBalaKilled())
+			.append(",\"antsKilledByBala\":").append(stats.getAntsKilledByBala())
+			.append(",\"totalFood\":").append(stats.getTotalFood())
+			.append(",\"queenFood\":").append(stats.getQueenFood())
+			.append(",\"foodDelivered\":").append(stats.getFoodDelivered())
+			.append(",\"exploredCells\":").append(stats.getExploredCells())
+			.append(",\"totalPheromone\":").append(stats.getTotalPheromone())
+			.append(",\"stateHash\":\"").append(stats.getStateHash()).append("\"}");
+		return json.toString();
+	} // end stats()
+
+	/**
+	 * method to write every square of a session's grid as a JSON object
+	 * @param session Session to describe, its lock held by the caller
+	 * @return String JSON object of per-cell arrays
+	 */
+	static String grid(Session session)
+	{
+		Colony colony = session.sim.colony;
+		ColonyGrid grid = colony.grid;
+		StringBuilder json = new StringBuilder(64 + grid.cellCount * 12);
+		json.append("{\"id\":").append(session.id)
+			.append(",\"totalTurns\":").append(session.sim.totalTurns)
+			.append(",\"width\":").append(grid.width)
+			.append(",\"height\":").append(grid.height)
+			.append(",\"queenCell\":").append(colony.queenCell);
+
+		json.append(",\"revealed\":[");
+		for (int cell = 0; cell < grid.cellCount; cell++)
+			json.append(cell == 0 ? "" : ",").append(grid.hidden[cell] ? 0 : 1);
+		json.append("],\"food\":[");
+		for (int cell = 0; cell < grid.cellCount; cell++)
+			json.append(cell == 0 ? "" : ",").append(grid.food[cell]);
+		json.append("],\"pheromone\":[");
+		for (int cell = 0; cell < grid.cellCount; cell++)
+			json.append(cell == 0 ? "" : ",").append(grid.pheromone[cell]);
+		for (int type = 0; type < AntType.COUNT; type++)
+		{
+			json.append("],\"").append(AntType.NAMES[type]).append("\":[");
+			for (int cell = 0; cell < grid.cellCount; cell++)
+				json.append(cell == 0 ? "" : ",").append(grid.count(cell, type));
+		}
+		json.append("]}");
+		return json.toString();
+	} // end grid()
+
+	/**
+	 * method to split a query string into its parameters
+	 * @param raw String raw query, may be null
+	 * @return Map of decoded names to decoded values
+	 */
+	static Map<String, String> parseQuery(String raw)
+	{
+		Map<String, String> query = new HashMap<>();
+		if (raw == null || raw.isEmpty())
+			return query;
+
+		for (String pair : raw.split("&"))
+		{
+			int equals = pair.indexOf('=');
+			String name = equals < 0 ? pair : pair.substring(0, equals);
+			String value = equals < 0 ? "" : pair.substring(equals + 1);
+			query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return query;
+	} // end parseQuery()
+
+	static long longParam(Map<String, String> query, String name, long missing)
+	{
+		String value = query.get(name);
+		if (value == null)
+			return missing;
+		try
+		{
+			return Long.parseLong(value);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new HttpError(400, name + " must be a number, was " + value);
+		}
+	}
+
+	static int intParam(Map<String, String> query, String name, int missing)
+	{
+		long value = longParam(query, name, missing);
+		if (value < 0 || value > Integer.MAX_VALUE)
+			throw new HttpError(400, name + " is out of range, was " + value);
+		return (int) value;
+	}
+
+	/**
+	 * method to send a reply and close the exchange
+	 * @param exchange HttpExchange to answer
+	 * @param status int HTTP status
+	 * @param json String body, null for none
+	 * @throws IOException if the client has gone
+	 */
+	static void reply(HttpExchange exchange, int status, String json) throws IOException
+	{
+		if (json == null)
+		{
+			exchange.sendResponseHeaders(status, -1);
+			exchange.close();
+			return;
+		}
+
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody())
+		{
+			out.write(body);
+		}
+	} // end reply()
+
+	/**
+	 * routes every request under /sessions
+	 */
+	class Handler implements HttpHandler {
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException
+		{
+			try
+			{
+				route(exchange);
+			}
+			catch (HttpError e)
+			{
+				reply(exchange, e.status, "{\"error\":\"" + e.getMessage().replace("\"", "'") + "\"}");
+			}
+			catch (RuntimeException e)
+			{
+				reply(exchange, 500, "{\"error\":\"" + String.valueOf(e).replace("\"", "'") + "\"}");
+			}
+		}
+
+		private void route(HttpExchange exchange) throws IOException
+		{
+			String method = exchange.getRequestMethod();
+			Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+			// "", "/ID" or "/ID/ACTION" after /sessions
+			String rest = exchange.getRequestURI().getPath().substring("/sessions".length());
+			String[] parts = rest.isEmpty() || rest.equals("/") ? new String[0] : rest.substring(1).split("/");
+
+			if (parts.length == 0)
+			{
+				if (method.equals("POST"))
+				{
+					Session session = create(query);
+					session.lock.lock();
+					try
+					{
+						reply(exchange, 201, stats(session));
+					}
+					finally
+					{
+						session.lock.unlock();
+					}
+				}
+				else if (method.equals("GET"))
+				{
+					StringBuilder json = new StringBuilder("{\"sessions\":[");
+					String separator = "";
+					for (Long id : sessions.keySet())
+					{
+						json.append(separator).append(id);
+						separator = ",";
+					}
+					reply(exchange, 200, json.append("]}").toString());
+				}
+				else
+					throw new HttpError(405, method + " not allowed on /sessions");
+				return;
+			}
+
+			if (parts.length > 2)
+				throw new HttpError(404, "no such path " + exchange.getRequestURI().getPath());
+
+			Session session = find(parts[0]);
+			String action = parts.length == 2 ? parts[1] : "";
+			String expected = action.equals("") ? (method.equals("DELETE") ? "DELETE" : "GET")
+					: action.equals("grid") ? "GET" : "POST";
+			if (!method.equals(expected))
+				throw new HttpError(405, method + " not allowed on " + exchange.getRequestURI().getPath());
+
+			if (method.equals("DELETE"))
+			{
+				sessions.remove(session.id);
+				reply(exchange, 204, null);
+				return;
+			}
+
+			String json;
+			session.lock.lock();
+			try
+			{
+				Simulation sim = session.sim;
+				if (action.equals(""))
+					json = stats(session);
+				else if (action.equals("grid"))
+					json = grid(session);
+				else if (action.equals("step"))
+				{
+					sim.runTurns(intParam(query, "turns", 1));
+					json = stats(session);
+				}
+				else if (action.equals("run"))
+				{
+					// the queen dies of old age at the latest, so this always ends
+					sim.runTurns(Integer.MAX_VALUE);
+					json = stats(session);
+				}
+				else
+					throw new HttpError(404, "no action " + action);
+			}
+			finally
+			{
+				session.lock.unlock();
+			}
+			reply(exchange, 200, json);
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package semesterProject;
+
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * runs a simulation on its own thread, apart from the Swing event thread
+ *
+ * the gui never touches the model. its buttons put commands on a queue and
+ * this thread carries them out between turns. while running, turns are taken
+ * either as fast as the machine allows or paced to a target number of turns
+ * per second. either way the changed squares are published to the view at
+ * most once per frame, so the speed of the engine and the frame rate of the
+ * gui do not depend on each other.
+ * @author SChmielowski
+ *
+ */
+public class SimulationThread extends Thread {
+
+	/*************
+	 *	constants
+	 ************/
+
+	// speed meaning run turns back to back with no pause
+	public static final int UNTHROTTLED = 0;
+
+	// how often the view is sent the latest state while running, as often as the gui redraws
+	static final long FRAME_NANOS = 1000000000L / Simulation.FRAME_RATE;
+
+	// command types
+	static final int RUN = 0;
+
+	static final int PAUSE = 1;
+
+	static final int STEP = 2;
+
+	static final int RESET = 3;
+
+	static final int SPEED = 4;
+
+	static final int SAVE = 5;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	Simulation sim;
+
+	BlockingQueue<Command> commands = new LinkedBlockingQueue<Command>();
+
+	// only read and written by this thread
+	boolean running;
+
+	int turnsPerSecond;
+
+	long nextTurnAt; // nanoTime the next paced turn is due
+
+	long nextFrameAt; // nanoTime the view is next due an update
+
+	/***************
+	 *	constructors
+	 **************/
+
+	/**
+	 * creates a paused engine thread, call start to begin taking commands
+	 * @param sim Simulation to run, only this thread may touch it once started
+	 * @param turnsPerSecond int starting speed, UNTHROTTLED for no limit
+	 */
+	public SimulationThread (Simulation sim, int turnsPerSecond)
+	{
+		super("simulation");
+		setDaemon(true);
+		this.sim = sim;
+		this.turnsPerSecond = turnsPerSecond;
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	// commands, safe to call from any thread
+
+	public void runContinuously()
+	{
+		commands.add(new Command(RUN, 0));
+	}
+
+	public void pause()
+	{
+		commands.add(new Command(PAUSE, 0));
+	}
+
+	/**
+	 * method to pause and take a single turn
+	 */
+	public void step()
+	{
+		commands.add(new Command(STEP, 0));
+	}
+
+	/**
+	 * method to pause and start the simulation over
+	 * @param turnsPerSecond int speed to use afterwards
+	 */
+	public void reset(int turnsPerSecond)
+	{
+		commands.add(new Command(RESET, turnsPerSecond));
+	}
+
+	/**
+	 * method to change the speed without starting or stopping
+	 * @param turnsPerSecond int target speed, UNTHROTTLED for no limit
+	 */
+	public void setSpeed(int turnsPerSecond)
+	{
+		commands.add(new Command(SPEED, turnsPerSecond));
+	}
+
+	/**
+	 * method to write a checkpoint between turns without pausing
+	 * @param file Path to save to
+	 */
+	public void save(Path file)
+	{
+		Command command = new Command(SAVE, 0);
+		command.file = file;
+		commands.add(command);
+	}
+
+	@Override
+	public void run()
+	{
+		try
+		{
+			while (true)
+			{
+				// block while paused, otherwise wait at most until the next paced turn
+				Command command;
+				if (!running)
+					command = commands.take();
+				else if (turnsPerSecond != UNTHROTTLED)
+					command = commands.poll(nextTurnAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+				else
+					command = commands.poll();
+
+				if (command != null)
+					execute(command);
+				else if (turnsPerSecond == UNTHROTTLED)
+					runFrame();
+				else
+					runPacedTurn();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			// interrupted means shut down
+		}
+	} // end run()
+
+	private void execute(Command command)
+	{
+		if (command.type == RUN)
+		{
+			if (!running && sim.isQueenAlive())
+			{
+				running = true;
+				nextTurnAt = System.nanoTime();
+				nextFrameAt = nextTurnAt + FRAME_NANOS;
+			}
+		}
+		else if (command.type == PAUSE)
+		{
+			// the last few turns may not have been shown yet
+			if (running)
+				sim.publishView();
+			running = false;
+		}
+		else if (command.type == STEP)
+		{
+			running = false;
+			if (sim.isQueenAlive())
+			{
+				sim.takeTurn();
+				sim.publishView();
+			}
+		}
+		else if (command.type == RESET)
+		{
+			running = false;
+			turnsPerSecond = command.value;
+			sim.reset();
+		}
+		else if (command.type == SPEED)
+		{
+			turnsPerSecond = command.value;
+			nextTurnAt = System.nanoTime();
+		}
+		else if (command.type == SAVE)
+		{
+			sim.saveCheckpoint(command.file);
+		}
+	} // end execute()
+
+	/**
+	 * method to take turns back to back until the next frame is due
+	 */
+	private void runFrame()
+	{
+		do
+			sim.takeTurn();
+		while (sim.isQueenAlive() && System.nanoTime() < nextFrameAt);
+
+		nextFrameAt = System.nanoTime() + FRAME_NANOS;
+		sim.publishView();
+		stopIfOver();
+	} // end runFrame()
+
+	/**
+	 * method to take one turn at the target speed
+	 */
+	private void runPacedTurn()
+	{
+		sim.takeTurn();
+
+		long now = System.nanoTime();
+		nextTurnAt += 1000000000L / turnsPerSecond;
+		// after falling behind, pick up from now instead of rushing to catch up
+		if (nextTurnAt < now - FRAME_NANOS)
+			nextTurnAt = now;
+
+		if (now >= nextFrameAt || !sim.isQueenAlive())
+		{
+			nextFrameAt = now + FRAME_NANOS;
+			sim.publishView();
+		}
+		stopIfOver();
+	} // end runPacedTurn()
+
+	private void stopIfOver()
+	{
+		if (!sim.isQueenAlive())
+			running = false;
+	} // end stopIfOver()
+
+	/**
+	 * a request from the gui, carried out between turns
+	 */
+	static class Command
+	{
+		int type;
+
+		int value;
+
+		Path file; // SAVE only
+
+		Command (int type, int value)
+		{
+			this.type = type;
+			this.value = value;
+		}
+	} // end Command
+}
@@ -12,7 +12,7 @@ public class Soldier extends Ant {
 	
 	public Soldier (Colony colony)
 	{
-		super(colony);
+		super(colony, AntType.SOLDIER);
 	}
 	
 	/**********
@@ -28,8 +28,8 @@ public class Soldier extends Ant {
 			death(sim, this);
 			return;
 		}		
-		if (sim.colony.map[x][y].balaCount > 0)
-			attack(sim, sim.colony.randomEnemy(x, y));
+		if (sim.colony.grid.enemyCount[cell] > 0)
+			attack(sim, sim.colony.randomEnemy(cell));
 		else
 			move(sim.colony);
 	} // end takeTurn()
@@ -37,36 +37,21 @@ public class Soldier extends Ant {
 	@Override
 	void move(Colony colony) 
 	{
-		// looping through nodes around soldier looking for bala ants
-		for (int i = -1; i <= 1; i++)
+		ColonyGrid grid = colony.grid;
+		NeighborTable neighbors = grid.neighbors;
+		
+		// looking through revealed nodes around soldier for enemy ants
+		for (int bits = neighbors.openMask(cell, grid.hidden); bits != 0; bits &= bits - 1)
 		{
-			for (int j = -1; j <= 1; j++)
+			int next = neighbors.neighbor(cell, Integer.numberOfTrailingZeros(bits));
+			if (grid.enemyCount[next] > 0)
 			{
-				if (x == 0 && i == -1)
-					continue;
-				else if (x == 26 && i == 1)
-					continue;
-				else if (y == 0 && j == -1)
-					continue;
-				else if (y == 26 && j == 1)
-					continue;
-				else if (colony.map[x+i][y+j].isHidden) // if node is hidden
-					continue;
-				else
-				{
-					if(colony.map[x + i][y + j].balaCount > 0)
-					{
-						colony.map[x][y].removeAnt(this);
-						x = x + i;
-						y = y + j;
-						colony.map[x][y].addAnt(this);
-						return;
-					}
-				}
+				moveTo(grid, next);
+				return;
 			}
 		}
 
-		// if there are no bala move randomly
+		// if there are no enemies move randomly
 		super.move(colony);
 	} // end move()
 } // end Soldier
@@ -0,0 +1,545 @@
+package semesterProject;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * records a row of numbers about the colony after every turn, as a time series on disk
+ *
+ * each turn the simulation thread writes one fixed size record into a ring
+ * of longs made when recording starts, and a writer thread takes records
+ * off the other end and does all the file output. the ring has one writer
+ * and one reader, so the two only share a count of records published and a
+ * count of records taken, and neither ever waits for the other. recording a
+ * turn is a few field reads and array stores, with no allocation, no lock
+ * and no I/O.
+ *
+ * if the writer falls so far behind that the ring is full, the turn's
+ * record is dropped and counted rather than holding up the simulation. the
+ * totalTurns column shows where records are missing, and births, deaths,
+ * kills and food count everything since the previous record, so their sums
+ * stay right across a gap.
+ *
+ * a file whose name ends in .csv gets a header line and one comma separated
+ * line per turn. any other file gets the compact columnar layout:
+ *
+ *		int magic "ANTT", int version, int columns
+ *		per column: byte length, then the column's name in ascii
+ *		per block: int records, int bytes, then each column in turn as
+ *			records zigzag varlongs, each the difference from the value
+ *			above it, the first from 0
+ *
+ * most columns barely change from one turn to the next, so most values take
+ * one byte. read() turns such a file back into columns, and main() prints
+ * one as csv.
+ * @author SChmielowski
+ *
+ */
+public class TelemetryRecorder {
+
+	/*************
+	 *	constants
+	 ************/
+
+	static final int MAGIC = 0x414E5454; // "ANTT"
+
+	static final int VERSION = 1;
+
+	// columns of a record
+	static final int TOTAL_TURNS = 0;
+
+	static final int YEAR = 1;
+
+	static final int DAY = 2;
+
+	static final int ANTS = 3; // live ants of each type, AntType.COUNT columns from here
+
+	static final int BIRTHS = ANTS + AntType.COUNT;
+
+	static final int DEATHS = BIRTHS + 1;
+
+	static final int BALA_KILLED = BIRTHS + 2;
+
+	static final int FOOD_DELIVERED = BIRTHS + 3;
+
+	static final int PHEROMONE = BIRTHS + 4;
+
+	static final int TURN_NANOS = BIRTHS + 5;
+
+	static final int FIELDS = BIRTHS + 6;
+
+	static final String[] COLUMNS = columnNames();
+
+	// records the ring holds, a power of two
+	static final int DEFAULT_CAPACITY = 1 << 14;
+
+	// most records written to the file at once
+	static final int BATCH = 1024;
+
+	// longest the writer sleeps while the ring is empty
+	static final long IDLE_NANOS = 10000000;
+
+	/*************
+	 *	attributes
+	 ************/
+
+	Simulation sim;
+
+	// record n is ring[(n & mask) * FIELDS] onwards
+	long[] ring;
+
+	int mask;
+
+	// written by the simulation thread only
+	long next; // records published so far
+
+	long freeUpTo; // records the writer had taken when last looked, plus the capacity
+
+	long dropped;
+
+	long lastBirths; // running totals at the last record published
+
+	long lastDeaths;
+
+	long lastBalaKilled;
+
+	long lastFoodDelivered;
+
+	// shared between the two threads
+	AtomicLong published = new AtomicLong();
+
+	AtomicLong taken = new AtomicLong();
+
+	volatile boolean closing;
+
+	volatile IOException failure;
+
+	// used by the writer thread once it has started
+	boolean csv;
+
+	FileChannel channel;
+
+	ByteBuffer out;
+
+	Thread writer;
+
+	/***************
+	 *	constructors
+	 **************/
+
+	private TelemetryRecorder (Simulation sim, int capacity, boolean csv)
+	{
+		this.sim = sim;
+		this.csv = csv;
+		ring = new long[capacity * FIELDS];
+		mask = capacity - 1;
+		freeUpTo = capacity;
+
+		// the widest a batch can get, ten bytes a varlong or twenty digits and a comma a value
+		out = ByteBuffer.allocateDirect(8 + BATCH * FIELDS * (csv ? 21 : 10));
+
+		Colony colony = sim.colony;
+		lastBirths = colony.antCount;
+		lastDeaths = deaths(colony);
+		lastBalaKilled = colony.balaKilled;
+		lastFoodDelivered = colony.foodDelivered;
+	}
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to start recording a simulation from its next turn
+	 * @param sim Simulation to record, must not be taking a turn
+	 * @param file Path to write, csv if its name ends in .csv and columnar otherwise
+	 * @return TelemetryRecorder that must be closed when the run ends
+	 * @throws IOException if the file cannot be created
+	 */
+	public static TelemetryRecorder start(Simulation sim, Path file) throws IOException
+	{
+		return start(sim, file, DEFAULT_CAPACITY);
+	} // end start()
+
+	/**
+	 * method to start recording a simulation from its next turn
+	 * @param sim Simulation to record, must not be taking a turn
+	 * @param file Path to write, csv if its name ends in .csv and columnar otherwise
+	 * @param capacity int records the ring holds, a power of two
+	 * @return TelemetryRecorder that must be closed when the run ends
+	 * @throws IOException if the file cannot be created
+	 */
+	public static TelemetryRecorder start(Simulation sim, Path file, int capacity) throws IOException
+	{
+		if (capacity < 1 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("capacity must be a power of two, was " + capacity);
+
+		final TelemetryRecorder recorder = new TelemetryRecorder(sim, capacity,
+				file.getFileName().toString().endsWith(".csv"));
+		recorder.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		recorder.writeHeader();
+
+		recorder.writer = new Thread("telemetry writer") {
+			public void run()
+			{
+				recorder.drain();
+			}
+		};
+		recorder.writer.setDaemon(true);
+		recorder.writer.start();
+
+		sim.telemetry = recorder;
+		return recorder;
+	} // end start()
+
+	private static String[] columnNames()
+	{
+		String[] names = new String[FIELDS];
+		names[TOTAL_TURNS] = "totalTurns";
+		names[YEAR] = "year";
+		names[DAY] = "day";
+		for (int type = 0; type < AntType.COUNT; type++)
+			names[ANTS + type] = AntType.NAMES[type];
+		names[BIRTHS] = "births";
+		names[DEATHS] = "deaths";
+		names[BALA_KILLED] = "balaKilled";
+		names[FOOD_DELIVERED] = "foodDelivered";
+		names[PHEROMONE] = "pheromone";
+		names[TURN_NANOS] = "turnNanos";
+		return names;
+	} // end columnNames()
+
+	/**
+	 * ants that have ever lived minus those alive now
+	 */
+	private static long deaths(Colony colony)
+	{
+		long alive = 0;
+		for (int type = 0; type < AntType.COUNT; type++)
+			alive += colony.liveAnts[type];
+		return colony.antCount - alive;
+	} // end deaths()
+
+	/**
+	 * method to publish the record of a finished turn
+	 *
+	 * called by the simulation thread at the end of every turn
+	 * @param nanos long time the turn took
+	 */
+	void turnTaken(long nanos)
+	{
+		if (next == freeUpTo)
+		{
+			freeUpTo = taken.get() + mask + 1;
+			if (next == freeUpTo)
+			{
+				dropped++;
+				return;
+			}
+		}
+
+		Colony colony = sim.colony;
+		long births = colony.antCount;
+		long deaths = deaths(colony);
+
+		int base = (int) (next & mask) * FIELDS;
+		ring[base + TOTAL_TURNS] = sim.totalTurns;
+		ring[base + YEAR] = sim.year;
+		ring[base + DAY] = sim.day;
+		for (int type = 0; type < AntType.COUNT; type++)
+			ring[base + ANTS + type] = colony.liveAnts[type];
+		ring[base + BIRTHS] = births - lastBirths;
+		ring[base + DEATHS] = deaths - lastDeaths;
+		ring[base + BALA_KILLED] = colony.balaKilled - lastBalaKilled;
+		ring[base + FOOD_DELIVERED] = colony.foodDelivered - lastFoodDelivered;
+		ring[base + PHEROMONE] = colony.grid.totalPheromone;
+		ring[base + TURN_NANOS] = nanos;
+
+		lastBirths = births;
+		lastDeaths = deaths;
+		lastBalaKilled = colony.balaKilled;
+		lastFoodDelivered = colony.foodDelivered;
+
+		// the release store makes the record visible before the count that covers it
+		published.lazySet(++next);
+	} // end turnTaken()
+
+	/**
+	 * method to get the number of turns whose record was dropped because the ring was full
+	 * @return long records dropped so far
+	 */
+	public long getDropped()
+	{
+		return dropped;
+	}
+
+	/**
+	 * method to stop recording, wait for every record to reach the file and close it
+	 * @throws IOException if anything could not be written
+	 */
+	public void close() throws IOException
+	{
+		if (sim.telemetry == this)
+			sim.telemetry = null;
+
+		closing = true;
+		LockSupport.unpark(writer);
+		try
+		{
+			writer.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		if (failure != null)
+			throw failure;
+	} // end close()
+
+	// the rest runs on the writer thread
+
+	private void writeHeader() throws IOException
+	{
+		if (csv)
+		{
+			for (int col = 0; col < FIELDS; col++)
+			{
+				if (col > 0)
+					out.put((byte) ',');
+				putAscii(COLUMNS[col]);
+			}
+			out.put((byte) '\n');
+		}
+		else
+		{
+			out.putInt(MAGIC);
+			out.putInt(VERSION);
+			out.putInt(FIELDS);
+			for (String name : COLUMNS)
+			{
+				out.put((byte) name.length());
+				putAscii(name);
+			}
+		}
+		flush();
+	} // end writeHeader()
+
+	/**
+	 * method run by the writer thread, writes records in batches until closed and empty
+	 */
+	private void drain()
+	{
+		long written = 0;
+		try
+		{
+			while (true)
+			{
+				// read closing first, so a record published before close() is never missed
+				boolean last = closing;
+				long ready = published.get();
+				if (ready == written)
+				{
+					if (last)
+						break;
+					LockSupport.parkNanos(this, IDLE_NANOS);
+					continue;
+				}
+
+				int count = (int) Math.min(ready - written, BATCH);
+				if (csv)
+					encodeRows(written, count);
+				else
+					encodeBlock(written, count);
+
+				// the records are copied out, so hand the ring back before the slow part
+				written += count;
+				taken.lazySet(written);
+				flush();
+			}
+		}
+		catch (IOException e)
+		{
+			failure = e;
+			// the simulation drops records once the ring fills, so it never waits on a dead writer
+		}
+		finally
+		{
+			try
+			{
+				channel.close();
+			}
+			catch (IOException e)
+			{
+				if (failure == null)
+					failure = e;
+			}
+		}
+	} // end drain()
+
+	private void encodeRows(long first, int count)
+	{
+		for (long n = first; n < first + count; n++)
+		{
+			int base = (int) (n & mask) * FIELDS;
+			for (int col = 0; col < FIELDS; col++)
+			{
+				if (col > 0)
+					out.put((byte) ',');
+				putAscii(Long.toString(ring[base + col]));
+			}
+			out.put((byte) '\n');
+		}
+	} // end encodeRows()
+
+	private void encodeBlock(long first, int count)
+	{
+		out.putInt(count);
+		int lengthAt = out.position();
+		out.putInt(0);
+
+		for (int col = 0; col < FIELDS; col++)
+		{
+			long previous = 0;
+			for (long n = first; n < first + count; n++)
+			{
+				long value = ring[(int) (n & mask) * FIELDS + col];
+				putVarlong(zigzag(value - previous));
+				previous = value;
+			}
+		}
+		out.putInt(lengthAt, out.position() - lengthAt - 4);
+	} // end encodeBlock()
+
+	private void flush() throws IOException
+	{
+		out.flip();
+		while (out.hasRemaining())
+			channel.write(out);
+		out.clear();
+	} // end flush()
+
+	private void putAscii(String text)
+	{
+		for (int i = 0; i < text.length(); i++)
+			out.put((byte) text.charAt(i));
+	}
+
+	private void putVarlong(long value)
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			out.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	static long zigzag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	static long unzigzag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * method to read a columnar telemetry file back
+	 * @param file Path written by a TelemetryRecorder in the columnar layout
+	 * @return long[][] one array per column of COLUMNS, each with a value per record
+	 * @throws IOException if the file cannot be read or is not telemetry
+	 */
+	public static long[][] read(Path file) throws IOException
+	{
+		ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+		if (in.remaining() < 12 || in.getInt() != MAGIC)
+			throw new IOException(file + " is not a telemetry file");
+		if (in.getInt() != VERSION)
+			throw new IOException(file + " is from another version");
+		int columns = in.getInt();
+		if (columns != FIELDS)
+			throw new IOException(file + " has " + columns + " columns, expected " + FIELDS);
+		for (int col = 0; col < columns; col++)
+			in.position(in.position() + 1 + in.get());
+
+		// count the records first so every column is made once
+		int records = 0;
+		int blocksAt = in.position();
+		while (in.hasRemaining())
+		{
+			records += in.getInt();
+			in.position(in.position() + 4 + in.getInt());
+		}
+
+		long[][] values = new long[FIELDS][records];
+		in.position(blocksAt);
+		int done = 0;
+		while (in.hasRemaining())
+		{
+			int count = in.getInt();
+			in.getInt();
+			for (int col = 0; col < FIELDS; col++)
+			{
+				long previous = 0;
+				for (int i = done; i < done + count; i++)
+				{
+					previous += unzigzag(readVarlong(in));
+					values[col][i] = previous;
+				}
+			}
+			done += count;
+		}
+		return values;
+	} // end read()
+
+	private static long readVarlong(ByteBuffer in)
+	{
+		long value = 0;
+		for (int shift = 0;; shift += 7)
+		{
+			byte next = in.get();
+			value |= (long) (next & 0x7F) << shift;
+			if (next >= 0)
+				return value;
+		}
+	}
+
+	/**
+	 * prints a columnar telemetry file as csv
+	 *
+	 * usage: TelemetryRecorder FILE
+	 */
+	public static void main(String[] args) throws IOException
+	{
+		if (args.length != 1)
+		{
+			System.err.println("usage: TelemetryRecorder FILE");
+			return;
+		}
+
+		long[][] values = read(Paths.get(args[0]));
+		PrintWriter writer = new PrintWriter(new OutputStreamWriter(System.out));
+		writer.println(String.join(",", COLUMNS));
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < values[0].length; i++)
+		{
+			line.setLength(0);
+			for (int col = 0; col < FIELDS; col++)
+				line.append(col == 0 ? "" : ",").append(values[col][i]);
+			writer.println(line);
+		}
+		writer.flush();
+	} // end main()
+}
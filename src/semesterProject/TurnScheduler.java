@@ -0,0 +1,69 @@
+package semesterProject;
+
+/**
+ * decides the order ants take their turns in and runs them
+ *
+ * the slots of every live ant are copied into a reusable int array and
+ * shuffled in place with Fisher-Yates, so a turn costs one pass over the
+ * ants and allocates nothing once the array is big enough. an ant that dies
+ * part way through the turn leaves its registry slot empty and is skipped,
+ * and an ant born part way through waits for the next turn.
+ * @author SChmielowski
+ *
+ */
+public class TurnScheduler {
+
+	/*************
+	 *	attributes
+	 ************/
+
+	int[] order = new int[64];
+
+	int size;
+
+	/*************
+	 *	methods
+	 ************/
+
+	/**
+	 * method to fill the turn order with every live ant and shuffle it
+	 * @param ants AntRegistry to take the ants from
+	 * @param rand RandomSource to shuffle with
+	 */
+	public void prepare(AntRegistry ants, RandomSource rand)
+	{
+		if (order.length < ants.size())
+			order = new int[Math.max(ants.size(), order.length * 2)];
+		size = ants.copySlots(order);
+
+		for (int i = size - 1; i > 0; i--)
+		{
+			int pick = rand.nextInt(i + 1);
+			int temp = order[i];
+			order[i] = order[pick];
+			order[pick] = temp;
+		}
+	} // end prepare()
+
+	/**
+	 * method to take every ant's turn in the prepared order
+	 *
+	 * stops early if the queen dies
+	 * @param sim Simulation the ants belong to
+	 */
+	public void run(Simulation sim)
+	{
+		Colony colony = sim.colony;
+		AntRegistry ants = colony.ants;
+
+		// ants with ids at or past this were born during this turn
+		int idLimit = colony.antCount;
+
+		for (int i = 0; i < size && colony.queen != null; i++)
+		{
+			Ant next = ants.get(order[i]);
+			if (next != null && next.id < idLimit)
+				next.takeTurn(sim);
+		}
+	} // end run()
+}
@@ -0,0 +1,87 @@
+package semesterProject;
+
+/**
+ * xoroshiro128++ random number generator
+ *
+ * small, fast and not synchronized. the two state words are filled from the
+ * seed with splitmix64 so nearby seeds still give unrelated streams.
+ * @author SChmielowski
+ *
+ */
+public class XoroshiroRandom implements RandomSource {
+
+	/*************
+	 *	attributes
+	 ************/
+	
+	long seed;
+	
+	long s0;
+	
+	long s1;
+	
+	/***************
+	 *	constructors
+	 **************/
+	
+	public XoroshiroRandom (long seed)
+	{
+		this.seed = seed;
+		
+		long z = seed;
+		s0 = mix64(z += 0x9E3779B97F4A7C15L);
+		s1 = mix64(z += 0x9E3779B97F4A7C15L);
+		
+		// all zero state would only ever return zero
+		if (s0 == 0 && s1 == 0)
+			s1 = 1;
+	}
+	
+	/*************
+	 *	methods
+	 ************/
+	
+	/**
+	 * splitmix64 finalizer
+	 * @param z long value to scramble
+	 * @return long scrambled value
+	 */
+	static long mix64(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	} // end mix64()
+	
+	public long getSeed()
+	{
+		return seed;
+	}
+	
+	@Override
+	public long nextLong()
+	{
+		long a = s0;
+		long b = s1;
+		long result = Long.rotateLeft(a + b, 17) + a;
+		
+		b ^= a;
+		s0 = Long.rotateLeft(a, 49) ^ b ^ (b << 21);
+		s1 = Long.rotateLeft(b, 28);
+		
+		return result;
+	} // end nextLong()
+	
+	@Override
+	public long[] getState()
+	{
+		return new long[] {s0, s1};
+	}
+	
+	@Override
+	public void setState(long[] state)
+	{
+		s0 = state[0];
+		s1 = state[1];
+	}
+}